@@ -0,0 +1,95 @@
+package list.guest.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import list.guest.adapter.persistence.ReservationRepository;
+import list.guest.dto.Guest;
+import list.guest.usecase.search.GuestNameIndex;
+import lombok.val;
+
+/**
+ * Measures the guest name searches of the door staff on their own, over {@code guests} made-up names:
+ * the start of a surname, a whole name and a name with two typos in it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GuestNameIndexBenchmark {
+
+    private static final String[] SYLLABLES = {
+        "an", "be", "ca", "da", "el", "fi", "go", "ha", "is", "jo", "ka", "lu", "ma", "ne", "ol",
+        "pa", "ri", "sa", "te", "ur", "va", "wi", "xa", "yo", "ze"};
+    private static final int LIMIT = 10;
+    private static final long SEED = 2022;
+
+    @Param({"100000"})
+    int guests;
+
+    GuestNameIndex guestNameIndex;
+    String wholeName;
+    String misspelledName;
+
+    @Setup(Level.Trial)
+    public void index() {
+        // the names are added straight to the index, so the repository is never asked for them
+        val reservationRepository = (ReservationRepository) Proxy.newProxyInstance(
+            ReservationRepository.class.getClassLoader(), new Class<?>[] {ReservationRepository.class}, (proxy, method, args) -> {
+                throw new UnsupportedOperationException(method.getName());
+            });
+        guestNameIndex = new GuestNameIndex(reservationRepository, Optional.empty());
+        val random = new Random(SEED);
+        for (int i = 0; i < guests; i++) {
+            guestNameIndex.add(Guest.of(capitalised(word(random, 2)) + " " + capitalised(word(random, 3)) + " " + i, i, 0));
+        }
+        wholeName = "Jobe Caline " + (guests / 2);
+        guestNameIndex.add(Guest.of(wholeName, guests, 0));
+        misspelledName = "Jboe Calnie";
+    }
+
+    @Benchmark
+    public List<Guest> searchSurnamePrefix() {
+        return guestNameIndex.search("cal", LIMIT);
+    }
+
+    @Benchmark
+    public List<Guest> searchWholeName() {
+        return guestNameIndex.search(wholeName, LIMIT);
+    }
+
+    @Benchmark
+    public List<Guest> searchMisspelledName() {
+        return guestNameIndex.search(misspelledName, LIMIT);
+    }
+
+    private static String word(Random random, int syllables) {
+        val word = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    private static String capitalised(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
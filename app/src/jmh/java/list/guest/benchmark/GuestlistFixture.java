@@ -0,0 +1,119 @@
+package list.guest.benchmark;
+
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import list.guest.MainApplication;
+import list.guest.adapter.persistence.ArrivedGuestRepository;
+import list.guest.adapter.persistence.ReservationRepository;
+import list.guest.adapter.persistence.TableDb;
+import list.guest.adapter.persistence.TableRepository;
+import list.guest.dto.Guest;
+import list.guest.usecase.GuestlistService;
+import list.guest.usecase.exceptions.GuestListException;
+import lombok.val;
+
+/**
+ * The application running against its own embedded H2 database, filled with
+ * {@code tables} tables, the first {@code reservations} of them reserved and the
+ * first {@code arrivals} of those guests already in the venue.
+ * The last table and the last reservation are always left free for the operations being measured.
+ */
+@State(Scope.Benchmark)
+public class GuestlistFixture {
+
+    static final int TABLE_CAPACITY = 10;
+    static final int ACCOMPANYING_GUESTS = 4;
+    private static final int FIRST_TABLE_NUMBER = 1000;
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1000"})
+    int tables;
+
+    @Param({"500"})
+    int reservations;
+
+    @Param({"250"})
+    int arrivals;
+
+    @Param({"false", "true"})
+    String seatingInMemory;
+
+    ConfigurableApplicationContext context;
+    GuestlistService guestlistService;
+    TableRepository tableRepository;
+    ReservationRepository reservationRepository;
+    ArrivedGuestRepository arrivedGuestRepository;
+
+    @Setup(Level.Trial)
+    public void start() throws GuestListException {
+
+        if (reservations >= tables || arrivals >= reservations) {
+            throw new IllegalArgumentException(
+                "Expected arrivals < reservations < tables but got " + arrivals + ", " + reservations + ", " + tables);
+        }
+        this.context = new SpringApplicationBuilder(MainApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "guestlist.seating.in-memory=" + seatingInMemory,
+                "logging.level.root=WARN")
+            .run();
+        this.guestlistService = context.getBean(GuestlistService.class);
+        this.tableRepository = context.getBean(TableRepository.class);
+        this.reservationRepository = context.getBean(ReservationRepository.class);
+        this.arrivedGuestRepository = context.getBean(ArrivedGuestRepository.class);
+
+        tableRepository.saveAll(IntStream.range(0, tables)
+            .mapToObj(i -> TableDb.of(tableNumber(i), TABLE_CAPACITY))
+            .collect(Collectors.toList()));
+        for (int from = 0; from < reservations; from += BATCH_SIZE) {
+            val bookings = new ArrayList<Guest>(BATCH_SIZE);
+            for (int i = from; i < Math.min(from + BATCH_SIZE, reservations); i++) {
+                bookings.add(Guest.of(guestName(i), tableNumber(i), ACCOMPANYING_GUESTS));
+            }
+            guestlistService.bookTables(bookings);
+        }
+        for (int i = 0; i < arrivals; i++) {
+            guestlistService.checkGuestIn(guestName(i), ACCOMPANYING_GUESTS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * @return  the one table never reserved by the fixture
+     */
+    int freeTableNumber() {
+        return tableNumber(tables - 1);
+    }
+
+    /**
+     * @return  a guest with a reservation who has not arrived yet
+     */
+    String expectedGuestName() {
+        return guestName(reservations - 1);
+    }
+
+    static int tableNumber(int i) {
+        return FIRST_TABLE_NUMBER + i;
+    }
+
+    static String guestName(int i) {
+        return String.format("guest-%07d", i);
+    }
+}
@@ -0,0 +1,85 @@
+package list.guest.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import list.guest.dto.Guest;
+import list.guest.usecase.exceptions.GuestListException;
+
+/**
+ * Measures the use cases end to end, from {@code GuestlistService} down to H2.
+ * The operations that change the guest list are undone after every call, outside
+ * the measurement, so each call finds the venue in the same state.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GuestlistServiceBenchmark {
+
+    private static final String NEW_GUEST_NAME = "new-guest";
+
+    @State(Scope.Thread)
+    public static class Booking {
+        @TearDown(Level.Invocation)
+        public void cancel(GuestlistFixture fixture) {
+            fixture.reservationRepository.findByName(NEW_GUEST_NAME)
+                .ifPresent(fixture.reservationRepository::delete);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Arrival {
+        @TearDown(Level.Invocation)
+        public void leave(GuestlistFixture fixture) throws GuestListException {
+            fixture.guestlistService.checkGuestOut(fixture.expectedGuestName());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Departure {
+        @Setup(Level.Invocation)
+        public void arrive(GuestlistFixture fixture) throws GuestListException {
+            fixture.guestlistService.checkGuestIn(fixture.expectedGuestName(), GuestlistFixture.ACCOMPANYING_GUESTS);
+        }
+    }
+
+    @Benchmark
+    public String bookTable(GuestlistFixture fixture, Booking booking) throws GuestListException {
+        return fixture.guestlistService.bookTable(NEW_GUEST_NAME, fixture.freeTableNumber(), GuestlistFixture.ACCOMPANYING_GUESTS);
+    }
+
+    @Benchmark
+    public String checkGuestIn(GuestlistFixture fixture, Arrival arrival) throws GuestListException {
+        return fixture.guestlistService.checkGuestIn(fixture.expectedGuestName(), GuestlistFixture.ACCOMPANYING_GUESTS);
+    }
+
+    @Benchmark
+    public void checkGuestOut(GuestlistFixture fixture, Departure departure) throws GuestListException {
+        fixture.guestlistService.checkGuestOut(fixture.expectedGuestName());
+    }
+
+    @Benchmark
+    public List<Guest> getGuestlist(GuestlistFixture fixture) {
+        return fixture.guestlistService.getGuestlist();
+    }
+
+    @Benchmark
+    public int getSeatsEmpty(GuestlistFixture fixture) {
+        return fixture.guestlistService.getSeatsEmpty();
+    }
+}
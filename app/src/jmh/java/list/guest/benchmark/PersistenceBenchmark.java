@@ -0,0 +1,88 @@
+package list.guest.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+import static java.util.stream.Collectors.*;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import list.guest.adapter.persistence.ReservationDb;
+import list.guest.adapter.persistence.TableOccupancyDb;
+import list.guest.adapter.persistence.TableSeatsDb;
+import list.guest.dto.ArrivedGuest;
+import list.guest.dto.Guest;
+
+/**
+ * Measures the queries behind the use cases on their own, without the service or the in-memory state in front.
+ * The lists are read both through the entities, as they used to be, and projected straight into the use case objects.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    @Benchmark
+    public int countSeatsEmpty(GuestlistFixture fixture) {
+        return fixture.arrivedGuestRepository.countSeatsEmpty();
+    }
+
+    @Benchmark
+    public List<TableSeatsDb> countSeatsEmptyByTable(GuestlistFixture fixture) {
+        return fixture.arrivedGuestRepository.countSeatsEmptyByTable();
+    }
+
+    @Benchmark
+    public List<TableOccupancyDb> findOccupancy(GuestlistFixture fixture) {
+        return fixture.tableRepository.findOccupancy();
+    }
+
+    @Benchmark
+    public List<TableOccupancyDb> findOccupancyAvailableFor(GuestlistFixture fixture) {
+        return fixture.tableRepository.findOccupancyAvailableFor(GuestlistFixture.TABLE_CAPACITY);
+    }
+
+    @Benchmark
+    public Optional<ReservationDb> findReservationByName(GuestlistFixture fixture) {
+        return fixture.reservationRepository.findByName(fixture.expectedGuestName());
+    }
+
+    @Benchmark
+    public Iterable<ReservationDb> findAllReservations(GuestlistFixture fixture) {
+        return fixture.reservationRepository.findAll();
+    }
+
+    @Benchmark
+    public List<Guest> findGuestsThroughEntities(GuestlistFixture fixture) {
+        return StreamSupport.stream(fixture.reservationRepository.findAll().spliterator(), false)
+            .map(ReservationDb::guest)
+            .collect(toList());
+    }
+
+    @Benchmark
+    public List<Guest> findGuests(GuestlistFixture fixture) {
+        return fixture.reservationRepository.findGuests();
+    }
+
+    @Benchmark
+    public List<ArrivedGuest> findArrivedGuestsThroughEntities(GuestlistFixture fixture) {
+        return StreamSupport.stream(fixture.arrivedGuestRepository.findAll().spliterator(), false)
+            .map(ArrivedGuestDb::arrival)
+            .collect(toList());
+    }
+
+    @Benchmark
+    public List<ArrivedGuest> findArrivedGuests(GuestlistFixture fixture) {
+        return fixture.arrivedGuestRepository.findArrivedGuests();
+    }
+}
@@ -2,10 +2,14 @@ package list.guest;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 
 @SpringBootApplication
+@EnableCaching
+@EnableScheduling
 public class MainApplication {
 
 	public static void main(String[] args) {
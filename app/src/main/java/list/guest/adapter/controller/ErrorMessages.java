@@ -1,5 +1,6 @@
 package list.guest.adapter.controller;
 
+import list.guest.usecase.exceptions.GuestListException.ErrorType;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -15,9 +16,33 @@ public enum ErrorMessages {
     GUEST_HAS_ALREADY_ARRIVED("The guest has already arrived"),
     GUEST_NOT_CHECKED_IN("The guest is not in the venue"),
     RESERVATION_NOT_FOUND("The guest has not got a valid reservation"),
+    NO_TABLE_AVAILABLE("There is no table free that can seat the party"),
     UNEXPECTED_ERROR("Unexpected error");
 
     @Getter()
     private final @NonNull String value;
-    
+
+    public static ErrorMessages of(ErrorType errorType) {
+        switch (errorType) {
+            case TABLE_NOT_FOUND:
+                return TABLE_NOT_FOUND;
+            case TABLE_CAPACITY_EXCEEDED:
+                return TABLE_CAPACITY_EXCEEDED;
+            case TABLE_NOT_AVAILABLE:
+                return TABLE_NOT_AVAILABLE;
+            case GUEST_BOOKED_ALREADY:
+                return GUEST_BOOKED_ALREADY;
+            case GUEST_HAS_ALREADY_ARRIVED:
+                return GUEST_HAS_ALREADY_ARRIVED;
+            case GUEST_NOT_CHECKED_IN:
+                return GUEST_NOT_CHECKED_IN;
+            case RESERVATION_NOT_FOUND:
+                return RESERVATION_NOT_FOUND;
+            case NO_TABLE_AVAILABLE:
+                return NO_TABLE_AVAILABLE;
+            default:
+                return UNEXPECTED_ERROR;
+        }
+    }
+
 }
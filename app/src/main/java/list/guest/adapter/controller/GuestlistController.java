@@ -1,79 +1,211 @@
 package list.guest.adapter.controller;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import static java.util.stream.Collectors.*;
 
 import javax.validation.Valid;
 
 import list.guest.adapter.controller.dto.ArrivalNotificationRequest;
 import list.guest.adapter.controller.dto.ArrivedGuestResponse;
+import list.guest.adapter.controller.dto.BatchReservationRequest;
+import list.guest.adapter.controller.dto.BatchReservationResponse;
+import list.guest.adapter.controller.dto.ChangeResponse;
+import list.guest.adapter.controller.dto.ChangesResponse;
+import list.guest.adapter.controller.dto.GuestReservationRequest;
 import list.guest.adapter.controller.dto.GuestResponse;
 import list.guest.adapter.controller.dto.ReservationRequest;
 import list.guest.adapter.controller.dto.ReservationResponse;
 import list.guest.adapter.controller.dto.SeatsEmptyResponse;
+import list.guest.adapter.controller.dto.TableResponse;
+import list.guest.dto.Change;
 import list.guest.usecase.GuestlistService;
 import list.guest.usecase.exceptions.GuestListException;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import static org.springframework.http.HttpHeaders.*;
 import static org.springframework.http.MediaType.*;
 
 
 @RestController
+@Profile("!reactive")
 @RequestMapping(produces = APPLICATION_JSON_VALUE)
 @RequiredArgsConstructor
 public class GuestlistController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_SEARCH_RESULTS = 10;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private @NonNull GuestlistService guestlistService;
+    private @NonNull ObjectMapper objectMapper;
+    private @NonNull RejectionMetrics rejectionMetrics;
+    private @NonNull GuestlistEventStream eventStream;
+    private @NonNull IdempotentRequests idempotentRequests;
+    private @NonNull Versions versions;
 
     @PostMapping(value = "guest_list/{name}", consumes = APPLICATION_JSON_VALUE)
     public ResponseEntity<ReservationResponse> addGuest(@PathVariable("name") String guestName, @Valid @RequestBody ReservationRequest reservationRequest) throws GuestListException {
 
+        val accompanyingNumber = Integer.parseInt(reservationRequest.getAccompanying_guests());
+        if (reservationRequest.getTable() == null) {
+            val tableNumber = guestlistService.bookAnyTable(guestName, accompanyingNumber);
+            return ResponseEntity.ok(ReservationResponse.of(guestName, tableNumber));
+        }
         val name = guestlistService.bookTable(
             guestName, 
             Integer.parseInt(reservationRequest.getTable()), 
-            Integer.parseInt(reservationRequest.getAccompanying_guests()));
+            accompanyingNumber);
         return ResponseEntity.ok(ReservationResponse.of(name));
     }
 
+    @PostMapping(value = "guest_list", consumes = APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchReservationResponse> addGuests(@Valid @RequestBody BatchReservationRequest batchReservationRequest) {
+
+        val results = guestlistService.bookTables(
+            batchReservationRequest.getGuests().stream()
+                .map(GuestReservationRequest::guest)
+                .collect(toList()));
+        results.forEach(result -> result.getErrorType().ifPresent(rejectionMetrics::rejected));
+        return ResponseEntity.ok(new BatchReservationResponse(
+            results.stream()
+                .map(BatchReservationResponse.Result::of)
+                .collect(toList())));
+    }
+
     @GetMapping("guest_list")
-    public ResponseEntity<List<GuestResponse>> getGuestList() {
-        return ResponseEntity.ok(
-            guestlistService.getGuestlist().stream()
+    public ResponseEntity<List<GuestResponse>> getGuestList(
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            WebRequest webRequest) {
+
+        val eTag = eTag("guest_list", guestlistService.getGuestlistVersion(), after, limit);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        if (after == null && limit == null) {
+            return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(guestlistService.getGuestlist().stream()
+                    .map(GuestResponse::of)
+                    .collect(toList()));
+        }
+        val pageSize = pageSize(limit);
+        return page(
+            guestlistService.getGuestlist(after == null ? "" : after, pageSize).stream()
                 .map(GuestResponse::of)
-                .collect(toList()));
+                .collect(toList()),
+            pageSize,
+            GuestResponse::getName,
+            eTag);
+    }
+
+    @GetMapping("guest_list/search")
+    public List<GuestResponse> searchGuestList(
+            @RequestParam("q") String query,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+
+        val results = limit == null ? DEFAULT_SEARCH_RESULTS : Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return guestlistService.searchGuests(query, results).stream()
+            .map(GuestResponse::of)
+            .collect(toList());
+    }
+
+    @GetMapping(value = "guest_list", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamGuestList() {
+        return ResponseEntity.ok()
+            .contentType(APPLICATION_NDJSON)
+            .body(ndjson(guestlistService::forEachGuest, GuestResponse::of));
     }
 
     @PutMapping(value = "guests/{name}", consumes = APPLICATION_JSON_VALUE)
-    public ResponseEntity<ReservationResponse> notifyGuestArrival(@PathVariable("name") String guestName, @Valid @RequestBody ArrivalNotificationRequest arrivalNotificationRequest) throws GuestListException {
-        val name = guestlistService.checkGuestIn(guestName, Integer.valueOf(arrivalNotificationRequest.getAccompanying_guests()));
+    public ResponseEntity<ReservationResponse> notifyGuestArrival(
+            @PathVariable("name") String guestName,
+            @RequestHeader(name = IdempotentRequests.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody ArrivalNotificationRequest arrivalNotificationRequest) throws GuestListException {
+
+        val name = idempotentRequests.call(idempotencyKey, "PUT guests/" + guestName,
+            () -> guestlistService.checkGuestIn(guestName, Integer.valueOf(arrivalNotificationRequest.getAccompanying_guests())));
         return ResponseEntity.ok(ReservationResponse.of(name));
     }
 
     @DeleteMapping("guests/{name}")
-    public ResponseEntity<Void> notifyGuestDeparture(@PathVariable("name") String guestName) throws GuestListException {
-        guestlistService.checkGuestOut(guestName);
+    public ResponseEntity<Void> notifyGuestDeparture(
+            @PathVariable("name") String guestName,
+            @RequestHeader(name = IdempotentRequests.HEADER, required = false) String idempotencyKey) throws GuestListException {
+
+        idempotentRequests.call(idempotencyKey, "DELETE guests/" + guestName, () -> {
+            guestlistService.checkGuestOut(guestName);
+            return guestName;
+        });
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("guests")
-    public ResponseEntity<List<ArrivedGuestResponse>> getArrivedGuests() {
-        return ResponseEntity.ok(
-            guestlistService.getArrivedGuests().stream()
+    public ResponseEntity<List<ArrivedGuestResponse>> getArrivedGuests(
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            WebRequest webRequest) {
+
+        val eTag = eTag("guests", guestlistService.getArrivedGuestsVersion(), after, limit);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        if (after == null && limit == null) {
+            return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(guestlistService.getArrivedGuests().stream()
+                    .map(ArrivedGuestResponse::of)
+                    .collect(toList()));
+        }
+        val pageSize = pageSize(limit);
+        return page(
+            guestlistService.getArrivedGuests(after == null ? "" : after, pageSize).stream()
                 .map(ArrivedGuestResponse::of)
-                .collect(toList()));
+                .collect(toList()),
+            pageSize,
+            ArrivedGuestResponse::getName,
+            eTag);
+    }
+
+    @GetMapping(value = "guests", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamArrivedGuests() {
+        return ResponseEntity.ok()
+            .contentType(APPLICATION_NDJSON)
+            .body(ndjson(guestlistService::forEachArrivedGuest, ArrivedGuestResponse::of));
     }
 
     @GetMapping("seats_empty")
@@ -81,6 +213,116 @@ public class GuestlistController {
         return ResponseEntity.ok(
             SeatsEmptyResponse.of(guestlistService.getSeatsEmpty()));
     }
-    
+
+    @GetMapping("seats_empty/{table}")
+    public ResponseEntity<SeatsEmptyResponse> getSeatsEmpty(@PathVariable("table") int tableNumber) throws GuestListException {
+        return ResponseEntity.ok(
+            SeatsEmptyResponse.of(guestlistService.getSeatsEmpty(tableNumber)));
+    }
+
+    @GetMapping("tables")
+    public ResponseEntity<List<TableResponse>> getTables(
+            @RequestParam(name = "party_size", required = false) Integer partySize) {
+
+        val tables = partySize == null
+            ? guestlistService.getTables()
+            : guestlistService.getTablesAvailableFor(partySize);
+        return ResponseEntity.ok(tables.stream()
+            .map(TableResponse::of)
+            .collect(toList()));
+    }
+
+    @GetMapping("changes")
+    public ResponseEntity<ChangesResponse> getChanges(@RequestParam("since") String since) {
+
+        final long base;
+        final Optional<List<Change>> changes;
+        if (versions.isVersion(since)) {
+            final Optional<Long> sequence;
+            try {
+                sequence = versions.sequence(since);
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+            // one from before a restart, and the changes made then have not been kept
+            base = sequence.orElse(0L);
+            changes = sequence.flatMap(after -> guestlistService.getChangesSince(after));
+        } else {
+            final LocalDateTime time;
+            try {
+                time = LocalDateTime.parse(since);
+            } catch (DateTimeParseException e) {
+                return ResponseEntity.badRequest().build();
+            }
+            // read first, so that the version returned is never ahead of the changes
+            base = guestlistService.getVersion();
+            changes = guestlistService.getChangesSince(time);
+        }
+        // the client has to read the lists again
+        if (changes.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        val list = changes.get();
+        val version = list.isEmpty() ? base : Math.max(base, list.get(list.size() - 1).getSequence());
+        return ResponseEntity.ok(new ChangesResponse(
+            versions.of(version),
+            list.stream()
+                .map(ChangeResponse::of)
+                .collect(toList())));
+    }
+
+    @GetMapping(value = "events", produces = TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getEvents(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return eventStream.subscribe(Optional.ofNullable(lastEventId));
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * The version of a list, as an entity tag of the page asked for.
+     * A request whose {@code If-None-Match} carries it is answered with 304 without reading the list.
+     */
+    private String eTag(String list, long version, String after, Integer limit) {
+        return "\"" + versions.of(version) + "-" + Integer.toHexString(Objects.hash(list, after, limit)) + "\"";
+    }
+
+    /**
+     * Links to the next page, keyed by the last name on this one, unless this page is the last
+     */
+    private static <T> ResponseEntity<List<T>> page(List<T> page, int pageSize, Function<T, String> name, String eTag) {
+        val response = ResponseEntity.ok().eTag(eTag);
+        if (page.size() == pageSize) {
+            val next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", name.apply(page.get(page.size() - 1)))
+                .replaceQueryParam("limit", pageSize)
+                .encode()
+                .toUriString();
+            response.header(LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page);
+    }
+
+    /**
+     * Writes one JSON document per line as the source produces them, flushing only when the buffer fills up
+     */
+    private <T> StreamingResponseBody ndjson(Consumer<Consumer<T>> source, Function<T, ?> toResponse) {
+        val writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return outputStream -> {
+            try (val generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                source.accept(item -> {
+                    try {
+                        writer.writeValue(generator, toResponse.apply(item));
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+
 }
-    
@@ -0,0 +1,301 @@
+package list.guest.adapter.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import list.guest.adapter.controller.dto.ArrivedGuestResponse;
+import list.guest.adapter.controller.dto.GuestResponse;
+import list.guest.adapter.controller.dto.GuestlistEventResponse;
+import list.guest.adapter.controller.dto.GuestlistSnapshotResponse;
+import list.guest.dto.Change;
+import list.guest.dto.GuestlistEvent;
+import list.guest.usecase.GuestlistService;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+import static org.springframework.http.MediaType.*;
+
+/**
+ * Pushes the bookings, arrivals and departures to the clients of {@code GET /events}.
+ * A new subscriber is sent a snapshot of the guest list, the guests in the venue and the seats empty, then every change after it,
+ * in the order of the {@code ChangeLog}; event ids are the versions of {@code GET /changes}.
+ * A subscriber that comes back with the id of the last event it got is sent the changes it missed instead of a new snapshot,
+ * as long as they are all still kept.
+ * Changes made while the snapshot is read may show in both; applying them twice leaves the same state.
+ * Each subscriber has its own bounded queue, drained by a sender while it is not empty, so a slow client only holds up itself
+ * and one sender; one that falls a queue behind is dropped, and catches up when it reconnects.
+ * The senders are a bounded pool, or the virtual threads the requests run on when {@code guestlist.threads.virtual=true}.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class GuestlistEventStream {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private static final long SENDER_KEEP_ALIVE_SECONDS = 60;
+
+    private final GuestlistService guestlistService;
+    private final ObjectMapper objectMapper;
+    private final Versions versions;
+    private final int queueCapacity;
+
+    private final AtomicInteger senders = new AtomicInteger();
+    // drains the subscribers' queues, each sender blocked on a client's socket while it writes to it
+    private final ExecutorService executor;
+    // whether the executor is this stream's own, rather than the virtual threads shared with the requests
+    private final boolean ownExecutor;
+    // changed under the lock on this stream, so that every subscriber is handed the changes in order
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    // the last change handed to the subscribers
+    private long lastSequence;
+
+    public GuestlistEventStream(
+            GuestlistService guestlistService,
+            ObjectMapper objectMapper,
+            Versions versions,
+            @Value("${guestlist.events.queue-capacity}") int queueCapacity,
+            @Value("${guestlist.events.senders}") int maxSenders,
+            Optional<ExecutorService> virtualThreadExecutor) {
+
+        this.guestlistService = guestlistService;
+        this.objectMapper = objectMapper;
+        this.versions = versions;
+        this.queueCapacity = queueCapacity;
+        this.ownExecutor = virtualThreadExecutor.isEmpty();
+        this.executor = virtualThreadExecutor.orElseGet(() -> senders(maxSenders));
+    }
+
+    /**
+     * @param lastEventId   the {@code Last-Event-ID} the client reconnected with, if any
+     */
+    public SseEmitter subscribe(Optional<String> lastEventId) {
+        // never times out; the heartbeat finds the clients that have gone away
+        val subscriber = new Subscriber(new SseEmitter(0L));
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        val missed = lastEventId
+            .filter(versions::isVersion)
+            .flatMap(this::sequence)
+            .filter(after -> guestlistService.getChangesSince(after).isPresent());
+        final long after;
+        if (missed.isPresent()) {
+            after = missed.get();
+        } else {
+            // read on the request thread; read first, so that no change made after the snapshot is missed
+            after = guestlistService.getVersion();
+            val snapshot = snapshot();
+            subscriber.offer(() -> SseEmitter.event().id(versions.of(after)).name("snapshot").data(snapshot, APPLICATION_JSON));
+        }
+        synchronized (this) {
+            subscriber.lastSequence = after;
+            subscribers.add(subscriber);
+            dispatch();
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * Only a sign that there are changes to hand out; they are read from the {@code ChangeLog}, in order
+     */
+    @EventListener
+    public synchronized void onGuestlistEvent(GuestlistEvent event) {
+        dispatch();
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds the clients that have gone away
+     */
+    @Scheduled(fixedDelayString = "${guestlist.events.heartbeat-interval:15000}")
+    public synchronized void heartbeat() {
+        new ArrayList<>(subscribers).forEach(subscriber -> subscriber.offer(() -> SseEmitter.event().comment("heartbeat")));
+    }
+
+    /**
+     * Ends the streams while the web server is still there to close them
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void close() throws InterruptedException {
+        synchronized (this) {
+            new ArrayList<>(subscribers).forEach(Subscriber::close);
+        }
+        if (!ownExecutor) {
+            return;
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * At most {@code size} clients are written to at once; the others' queues wait for a sender.
+     * Idle senders are let go, so a quiet stream holds no threads.
+     */
+    private ExecutorService senders(int size) {
+        val executor = new ThreadPoolExecutor(size, size, SENDER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            // one task per subscriber at most, see Subscriber.sending
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                val thread = new Thread(runnable, "guestlist-events-" + senders.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Hands the changes made since the last dispatch to the subscribers that have not had them yet
+     */
+    private void dispatch() {
+        if (subscribers.isEmpty()) {
+            lastSequence = guestlistService.getVersion();
+            return;
+        }
+        val from = subscribers.stream().mapToLong(subscriber -> subscriber.lastSequence).min().orElse(lastSequence);
+        val changes = guestlistService.getChangesSince(Math.min(from, lastSequence));
+        if (changes.isEmpty()) {
+            // more changes were made at once than are kept; the subscribers start over from a new snapshot
+            log.warn("Guestlist event stream fell behind the change log; {} subscribers dropped", subscribers.size());
+            new ArrayList<>(subscribers).forEach(Subscriber::close);
+            lastSequence = guestlistService.getVersion();
+            return;
+        }
+        // the subscribers dropped on the way are removed from the list
+        val current = new ArrayList<>(subscribers);
+        for (val change : changes.get()) {
+            // serialised once for all the subscribers
+            val event = event(change);
+            current.forEach(subscriber -> {
+                if (change.getSequence() > subscriber.lastSequence) {
+                    subscriber.lastSequence = change.getSequence();
+                    subscriber.offer(event);
+                }
+            });
+            lastSequence = Math.max(lastSequence, change.getSequence());
+        }
+    }
+
+    private synchronized void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    private Optional<Long> sequence(String version) {
+        try {
+            return versions.sequence(version);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String snapshot() {
+        val guestList = new ArrayList<GuestResponse>();
+        guestlistService.forEachGuest(guest -> guestList.add(GuestResponse.of(guest)));
+        val guests = new ArrayList<ArrivedGuestResponse>();
+        guestlistService.forEachArrivedGuest(arrivedGuest -> guests.add(ArrivedGuestResponse.of(arrivedGuest)));
+        return json(GuestlistSnapshotResponse.of(guestList, guests, guestlistService.getSeatsEmpty()));
+    }
+
+    /**
+     * A builder per send, as building one changes it
+     */
+    private Supplier<SseEventBuilder> event(Change change) {
+        val id = versions.of(change.getSequence());
+        val name = change.getEvent().getType().name().toLowerCase();
+        val data = json(GuestlistEventResponse.of(change.getEvent(), change.getSeatsEmpty()));
+        return () -> SseEmitter.event().id(id).name(name).data(data, APPLICATION_JSON);
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A client of the stream and the events waiting to be sent to it
+     */
+    @RequiredArgsConstructor
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<Supplier<SseEventBuilder>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        // whether a sender is draining the queue
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // the last change queued; only used under the lock on the stream
+        private long lastSequence;
+        private volatile boolean closed;
+
+        void offer(Supplier<SseEventBuilder> event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.info("Guestlist event subscriber fell {} events behind; dropped", queueCapacity);
+                close();
+                return;
+            }
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::send);
+                } catch (RejectedExecutionException e) {
+                    // shutting down; the subscribers are being completed
+                }
+            }
+        }
+
+        void close() {
+            closed = true;
+            remove(this);
+            queue.clear();
+            emitter.complete();
+        }
+
+        private void send() {
+            do {
+                Supplier<SseEventBuilder> event;
+                while ((event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event.get());
+                    } catch (IOException | IllegalStateException e) {
+                        // the client has gone away or the emitter has already completed
+                        closed = true;
+                        remove(this);
+                        queue.clear();
+                        emitter.completeWithError(e);
+                        return;
+                    }
+                }
+                sending.set(false);
+                // an event queued after the queue was found empty, but before the flag was cleared, is sent too
+            } while (!queue.isEmpty() && sending.compareAndSet(false, true));
+        }
+    }
+}
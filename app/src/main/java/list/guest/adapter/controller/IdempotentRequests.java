@@ -0,0 +1,126 @@
+package list.guest.adapter.controller;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import list.guest.usecase.exceptions.GuestListException;
+import lombok.val;
+import reactor.core.publisher.Mono;
+
+/**
+ * The outcome of each request sent with an {@value #HEADER} header, so that its retries are answered with
+ * the original response, or rejection, without running the use case again.
+ * A retry that comes in while the original is still running waits for it.
+ * Keys are scoped to the request they came with and kept in memory, up to a number and for a time.
+ * Requests that fail unexpectedly are forgotten, so that their retries run again.
+ */
+@Component
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws GuestListException;
+    }
+
+    private final AsyncCache<String, Object> outcomes;
+
+    public IdempotentRequests(
+            @Value("${guestlist.idempotency.max-keys}") long maxKeys,
+            @Value("${guestlist.idempotency.expiry}") long expiry,
+            MeterRegistry meterRegistry) {
+
+        this.outcomes = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterWrite(Duration.ofMillis(expiry))
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, outcomes, "idempotency");
+    }
+
+    /**
+     * @param key       the idempotency key sent by the client, if any
+     * @param request   what the key was sent with, e.g. {@code PUT guests/John}
+     * @return  what the call returned the first time the key was seen
+     * @throws GuestListException   if the call was rejected the first time the key was seen
+     */
+    public <T> T call(String key, String request, Call<T> call) throws GuestListException {
+        if (key == null) {
+            return call.call();
+        }
+        val outcome = new CompletableFuture<Object>();
+        val previous = outcomes.asMap().putIfAbsent(request + " " + key, outcome);
+        if (previous != null) {
+            try {
+                return replay(previous.join());
+            } catch (CompletionException | CancellationException e) {
+                // the original failed unexpectedly, so this one goes ahead on its own
+                return call.call();
+            }
+        }
+        try {
+            val result = call.call();
+            outcome.complete(result);
+            return result;
+        } catch (GuestListException e) {
+            outcome.complete(e);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            outcome.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * @see #call(String, String, Call)
+     */
+    public <T> Mono<T> callMono(String key, String request, Supplier<Mono<T>> call) {
+        if (key == null) {
+            return call.get();
+        }
+        return Mono.defer(() -> {
+            val id = request + " " + key;
+            val outcome = new CompletableFuture<Object>();
+            val previous = outcomes.asMap().putIfAbsent(id, outcome);
+            if (previous != null) {
+                return Mono.fromFuture(previous)
+                    .flatMap(result -> Mono.fromCallable(() -> this.<T>replay(result)))
+                    // the original failed unexpectedly, so this one goes ahead on its own
+                    .onErrorResume(e -> !(e instanceof GuestListException), e -> call.get());
+            }
+            return call.get()
+                .doOnSuccess(outcome::complete)
+                .doOnError(e -> {
+                    if (e instanceof GuestListException) {
+                        outcome.complete(e);
+                    } else {
+                        outcome.completeExceptionally(e);
+                    }
+                })
+                .doOnCancel(() -> {
+                    outcomes.asMap().remove(id, outcome);
+                    outcome.cancel(false);
+                });
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T replay(Object result) throws GuestListException {
+        if (result instanceof GuestListException) {
+            throw (GuestListException) result;
+        }
+        return (T) result;
+    }
+}
@@ -0,0 +1,65 @@
+package list.guest.adapter.controller;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import list.guest.adapter.controller.dto.ReservationResponseError;
+import list.guest.usecase.exceptions.GuestListException;
+import list.guest.usecase.exceptions.GuestListException.ErrorType;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+import static java.util.stream.Collectors.*;
+
+/**
+ * The {@link RestExceptionHandler} responses on WebFlux, for the reactive profile
+ */
+@Slf4j
+@Profile("reactive")
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class ReactiveExceptionHandler {
+
+    private static final Map<ErrorType, ReservationResponseError> ERRORS = new EnumMap<>(ErrorType.class);
+    static {
+        for (ErrorType errorType : ErrorType.values()) {
+            ERRORS.put(errorType, new ReservationResponseError(ErrorMessages.of(errorType).value()));
+        }
+    }
+
+    private @NonNull RejectionMetrics rejectionMetrics;
+    private @NonNull RejectionLog rejectionLog;
+
+    // 400 BAD REQUEST HANDLER
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(WebExchangeBindException.class)
+    Map<String, String> handleBindException(WebExchangeBindException ex) {
+
+        val errors = ex.getFieldErrors().stream()
+            .collect(toMap(
+                FieldError::getField,
+                FieldError::getDefaultMessage));
+        log.error("400 BAD REQUEST:\n{}", errors);
+        return errors;
+    }
+
+    // 409 CONFLICT HANDLER
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(GuestListException.class)
+    ReservationResponseError handleGuestListException(GuestListException ex) {
+
+        rejectionMetrics.rejected(ex.getErrorType());
+        rejectionLog.rejected(ex.getErrorType());
+        return ERRORS.get(ex.getErrorType());
+    }
+}
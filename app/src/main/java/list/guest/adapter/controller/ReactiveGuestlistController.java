@@ -0,0 +1,113 @@
+package list.guest.adapter.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+import list.guest.adapter.controller.dto.ArrivalNotificationRequest;
+import list.guest.adapter.controller.dto.ArrivedGuestResponse;
+import list.guest.adapter.controller.dto.GuestResponse;
+import list.guest.adapter.controller.dto.ReservationRequest;
+import list.guest.adapter.controller.dto.ReservationResponse;
+import list.guest.adapter.controller.dto.SeatsEmptyResponse;
+import list.guest.adapter.controller.dto.TableResponse;
+import list.guest.usecase.ReactiveGuestlistService;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.http.MediaType.*;
+
+/**
+ * The {@link GuestlistController} API on WebFlux, for the reactive profile.
+ * Lists are streamed as they are read, as a JSON array or, with {@code Accept: application/x-ndjson}, one guest per line.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping(produces = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+@RequiredArgsConstructor
+public class ReactiveGuestlistController {
+
+    private @NonNull ReactiveGuestlistService guestlistService;
+    private @NonNull IdempotentRequests idempotentRequests;
+
+    @PostMapping(value = "guest_list/{name}", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public Mono<ReservationResponse> addGuest(@PathVariable("name") String guestName, @Valid @RequestBody ReservationRequest reservationRequest) {
+        val accompanyingNumber = Integer.parseInt(reservationRequest.getAccompanying_guests());
+        if (reservationRequest.getTable() == null) {
+            return guestlistService.bookAnyTable(guestName, accompanyingNumber)
+                .map(tableNumber -> ReservationResponse.of(guestName, tableNumber));
+        }
+        return guestlistService.bookTable(
+                guestName,
+                Integer.parseInt(reservationRequest.getTable()),
+                accompanyingNumber)
+            .map(ReservationResponse::of);
+    }
+
+    @GetMapping("guest_list")
+    public Flux<GuestResponse> getGuestList() {
+        return guestlistService.getGuestlist()
+            .map(GuestResponse::of);
+    }
+
+    @PutMapping(value = "guests/{name}", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public Mono<ReservationResponse> notifyGuestArrival(
+            @PathVariable("name") String guestName,
+            @RequestHeader(name = IdempotentRequests.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody ArrivalNotificationRequest arrivalNotificationRequest) {
+
+        return idempotentRequests.callMono(idempotencyKey, "PUT guests/" + guestName,
+                () -> guestlistService.checkGuestIn(guestName, Integer.parseInt(arrivalNotificationRequest.getAccompanying_guests())))
+            .map(ReservationResponse::of);
+    }
+
+    @DeleteMapping("guests/{name}")
+    public Mono<ResponseEntity<Void>> notifyGuestDeparture(
+            @PathVariable("name") String guestName,
+            @RequestHeader(name = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+
+        return idempotentRequests.callMono(idempotencyKey, "DELETE guests/" + guestName,
+                () -> guestlistService.checkGuestOut(guestName).thenReturn(guestName))
+            .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    @GetMapping("guests")
+    public Flux<ArrivedGuestResponse> getArrivedGuests() {
+        return guestlistService.getArrivedGuests()
+            .map(ArrivedGuestResponse::of);
+    }
+
+    @GetMapping(value = "seats_empty", produces = APPLICATION_JSON_VALUE)
+    public Mono<SeatsEmptyResponse> getSeatsEmpty() {
+        return guestlistService.getSeatsEmpty()
+            .map(SeatsEmptyResponse::of);
+    }
+
+    @GetMapping(value = "seats_empty/{table}", produces = APPLICATION_JSON_VALUE)
+    public Mono<SeatsEmptyResponse> getSeatsEmpty(@PathVariable("table") int tableNumber) {
+        return guestlistService.getSeatsEmpty(tableNumber)
+            .map(SeatsEmptyResponse::of);
+    }
+
+    @GetMapping("tables")
+    public Flux<TableResponse> getTables(@RequestParam(name = "party_size", required = false) Integer partySize) {
+        return (partySize == null
+                ? guestlistService.getTables()
+                : guestlistService.getTablesAvailableFor(partySize))
+            .map(TableResponse::of);
+    }
+}
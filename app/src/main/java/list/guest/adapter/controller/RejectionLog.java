@@ -0,0 +1,47 @@
+package list.guest.adapter.controller;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import list.guest.usecase.exceptions.GuestListException.ErrorType;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logs rejections at most once per interval and reason, with the number of them since the previous line,
+ * so that a storm of rejections does not become a storm of log lines
+ */
+@Slf4j
+@Component
+public class RejectionLog {
+
+    private final long intervalNanos;
+    private final Map<ErrorType, AtomicLong> rejections = new EnumMap<>(ErrorType.class);
+    private final Map<ErrorType, AtomicLong> nextLogNanos = new EnumMap<>(ErrorType.class);
+
+    public RejectionLog(@Value("${guestlist.rejections.log-interval:1000}") long intervalMillis) {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        val now = System.nanoTime();
+        for (ErrorType errorType : ErrorType.values()) {
+            rejections.put(errorType, new AtomicLong());
+            nextLogNanos.put(errorType, new AtomicLong(now));
+        }
+    }
+
+    public void rejected(ErrorType errorType) {
+        rejections.get(errorType).incrementAndGet();
+        val nextLog = nextLogNanos.get(errorType);
+        val now = System.nanoTime();
+        val next = nextLog.get();
+        // only the thread that moves the deadline on gets to log
+        if (now - next >= 0 && nextLog.compareAndSet(next, now + intervalNanos)) {
+            log.info("409 CONFLICT: {} reason={} count={}",
+                ErrorMessages.of(errorType).value(), errorType, rejections.get(errorType).getAndSet(0));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package list.guest.adapter.controller;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import list.guest.usecase.exceptions.GuestListException.ErrorType;
+
+/**
+ * Counts the requests turned down by the guest list rules, broken down by reason
+ */
+@Component
+public class RejectionMetrics {
+
+    private final Map<ErrorType, Counter> counters = new EnumMap<>(ErrorType.class);
+
+    public RejectionMetrics(MeterRegistry meterRegistry) {
+        for (ErrorType errorType : ErrorType.values()) {
+            counters.put(errorType, Counter.builder("guestlist.rejections")
+                .description("Requests rejected by the guest list rules")
+                .tag("reason", errorType.name())
+                .register(meterRegistry));
+        }
+    }
+
+    public void rejected(ErrorType errorType) {
+        counters.get(errorType).increment();
+    }
+}
@@ -1,5 +1,6 @@
 package list.guest.adapter.controller;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,17 +14,40 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 
 import list.guest.adapter.controller.dto.ReservationResponseError;
 import list.guest.usecase.exceptions.GuestListException;
+import list.guest.usecase.exceptions.GuestListException.ErrorType;
+import list.guest.usecase.exceptions.WriteBacklogException;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
 import static java.util.stream.Collectors.*;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import javax.servlet.http.HttpServletRequest;
 
 @Slf4j
 @RestControllerAdvice
+@Profile("!reactive")
+@RequiredArgsConstructor
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
+    // one body per reason, built once
+    private static final Map<ErrorType, ReservationResponseError> ERRORS = new EnumMap<>(ErrorType.class);
+    static {
+        for (ErrorType errorType : ErrorType.values()) {
+            ERRORS.put(errorType, new ReservationResponseError(ErrorMessages.of(errorType).value()));
+        }
+    }
+
+    // how soon a change turned away for the write backlog may be retried
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private @NonNull RejectionMetrics rejectionMetrics;
+    private @NonNull RejectionLog rejectionLog;
+
     // 400 BAD REQUEST HANDLER
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(
@@ -37,7 +61,7 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
                 FieldError::getField,
                 FieldError::getDefaultMessage));
 
-        log.error("400 BAD REQUEST:\n" + errors);
+        log.error("400 BAD REQUEST:\n{}", errors);
         return handleExceptionInternal(ex, errors , headers, HttpStatus.BAD_REQUEST, request);
     }
 
@@ -46,35 +70,19 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
     @ExceptionHandler(GuestListException.class)
     ReservationResponseError handleGuestListException(HttpServletRequest req, GuestListException ex) {
         
-        String errorMsg;
-        switch (ex.getErrorType()) {
-            case TABLE_NOT_FOUND:
-                errorMsg = ErrorMessages.TABLE_NOT_FOUND.value();
-                break;
-            case TABLE_CAPACITY_EXCEEDED:
-                errorMsg = ErrorMessages.TABLE_CAPACITY_EXCEEDED.value();
-                break;   
-            case TABLE_NOT_AVAILABLE:
-                errorMsg = ErrorMessages.TABLE_NOT_AVAILABLE.value();
-                break;
-            case GUEST_BOOKED_ALREADY:
-                errorMsg = ErrorMessages.GUEST_BOOKED_ALREADY.value();
-                break;
-            case GUEST_HAS_ALREADY_ARRIVED:
-            errorMsg = ErrorMessages.GUEST_HAS_ALREADY_ARRIVED.value();
-            break;
-            case GUEST_NOT_CHECKED_IN:
-                errorMsg = ErrorMessages.GUEST_NOT_CHECKED_IN.value();
-                break;                
-            case RESERVATION_NOT_FOUND:
-            errorMsg = ErrorMessages.RESERVATION_NOT_FOUND.value();
-            break;
-            default:
-                errorMsg = ErrorMessages.UNEXPECTED_ERROR.value();
-                break;
-            }
-            log.error("409 CONFLICT: " + errorMsg);
-            return new ReservationResponseError(errorMsg);
+        rejectionMetrics.rejected(ex.getErrorType());
+        rejectionLog.rejected(ex.getErrorType());
+        return ERRORS.get(ex.getErrorType());
     } 
+
+    // 503 SERVICE UNAVAILABLE HANDLER
+    @ExceptionHandler(WriteBacklogException.class)
+    ResponseEntity<ReservationResponseError> handleWriteBacklogException(WriteBacklogException ex) {
+
+        log.warn("503 SERVICE UNAVAILABLE: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+            .body(new ReservationResponseError(ex.getMessage()));
+    }
 }
 
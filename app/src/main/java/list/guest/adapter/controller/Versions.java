@@ -0,0 +1,39 @@
+package list.guest.adapter.controller;
+
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * The versions handed to clients, by {@code GET /changes}, in entity tags and as event ids:
+ * the sequence number of a change, prefixed so that the versions served before a restart are told apart from those served after it
+ */
+@Component
+class Versions {
+
+    // a version served by this instance or by an earlier run of it
+    private static final Pattern VERSION = Pattern.compile("[0-9a-z]+-[0-9]+");
+
+    private final String prefix = Long.toString(System.currentTimeMillis(), 36) + "-";
+
+    String of(long sequence) {
+        return prefix + sequence;
+    }
+
+    boolean isVersion(String version) {
+        return VERSION.matcher(version).matches();
+    }
+
+    /**
+     * @param version   a version, see {@link #isVersion}
+     * @return  its sequence number if it was served by this instance; empty if it was served before a restart
+     * @throws NumberFormatException    if the sequence number is out of range
+     */
+    Optional<Long> sequence(String version) {
+        if (!version.startsWith(prefix)) {
+            return Optional.empty();
+        }
+        return Optional.of(Long.parseLong(version.substring(prefix.length())));
+    }
+}
@@ -0,0 +1,18 @@
+package list.guest.adapter.controller.dto;
+
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+public class BatchReservationRequest {
+
+    @NotEmpty(message = "At least one guest is mandatory")
+    @BatchSize
+    private List<@Valid GuestReservationRequest> guests;
+}
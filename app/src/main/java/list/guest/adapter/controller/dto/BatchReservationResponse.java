@@ -0,0 +1,36 @@
+package list.guest.adapter.controller.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import list.guest.adapter.controller.ErrorMessages;
+import list.guest.dto.BookingResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NonNull;
+
+@Data 
+public class BatchReservationResponse {
+    private @NonNull List<Result> guests;
+
+    @Data @AllArgsConstructor
+    @JsonInclude(Include.NON_NULL)
+    public static class Result {
+        private @NonNull String name;
+        private boolean booked;
+        // why the booking has been rejected, if it has
+        private String reason;
+
+        public static Result of(BookingResult bookingResult) {
+            return new Result(
+                bookingResult.getName(),
+                bookingResult.getErrorType().isEmpty(),
+                bookingResult.getErrorType()
+                    .map(errorType -> ErrorMessages.of(errorType).value())
+                    .orElse(null)
+            );
+        }
+    }
+}
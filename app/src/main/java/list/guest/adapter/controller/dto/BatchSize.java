@@ -0,0 +1,51 @@
+package list.guest.adapter.controller.dto;
+
+import static java.lang.annotation.ElementType.*;
+import static java.lang.annotation.RetentionPolicy.*;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.Collection;
+
+import javax.validation.Constraint;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.Payload;
+
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * A {@code @Size(max)} read from {@code guestlist.bookings.batch.max-size}, as annotation values cannot come from properties:
+ * every guest of a batch is looked up in one {@code IN} list per table, which the database caps and plans worse as it grows
+ */
+@Target(FIELD)
+@Retention(RUNTIME)
+@Constraint(validatedBy = BatchSize.Validator.class)
+public @interface BatchSize {
+
+    String message() default "";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    class Validator implements ConstraintValidator<BatchSize, Collection<?>> {
+
+        private final int maxSize;
+
+        public Validator(@Value("${guestlist.bookings.batch.max-size}") int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public boolean isValid(Collection<?> value, ConstraintValidatorContext context) {
+            if (value == null || value.size() <= maxSize) {
+                return true;
+            }
+            context.disableDefaultConstraintViolation();
+            context.buildConstraintViolationWithTemplate("At most " + maxSize + " guests can be booked at once")
+                .addConstraintViolation();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package list.guest.adapter.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import list.guest.dto.Change;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NonNull;
+import lombok.val;
+
+@Data @AllArgsConstructor
+@JsonInclude(Include.NON_NULL)
+public class ChangeResponse {
+    // booked, arrived or left
+    private @NonNull String type;
+    private @NonNull String name;
+    // for bookings
+    private String table;
+    // for bookings and arrivals
+    private String accompanying_guests;
+    // for arrivals
+    private String time_arrived;
+    private @NonNull String time;
+
+    public static ChangeResponse of(Change change) {
+        val event = change.getEvent();
+        return new ChangeResponse(
+            event.getType().name().toLowerCase(),
+            event.getName(),
+            event.getGuest()
+                .map(guest -> guest.getTableNumber().toString())
+                .orElse(null),
+            event.getGuest()
+                .map(guest -> guest.getAccompanyingGuests())
+                .or(() -> event.getArrivedGuest().map(arrivedGuest -> arrivedGuest.getAccompanyingGuests()))
+                .map(Object::toString)
+                .orElse(null),
+            event.getArrivedGuest()
+                .map(arrivedGuest -> arrivedGuest.getTimeArrived().toString())
+                .orElse(null),
+            change.getTime().toString()
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package list.guest.adapter.controller.dto;
+
+import java.util.List;
+
+import lombok.Data;
+import lombok.NonNull;
+
+@Data
+public class ChangesResponse {
+    // to be sent as since on the next request
+    private @NonNull String version;
+    private @NonNull List<ChangeResponse> changes;
+}
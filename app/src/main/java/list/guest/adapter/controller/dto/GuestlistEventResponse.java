@@ -0,0 +1,41 @@
+package list.guest.adapter.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import list.guest.dto.GuestlistEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NonNull;
+
+@Data @AllArgsConstructor
+@JsonInclude(Include.NON_NULL)
+public class GuestlistEventResponse {
+    private @NonNull String name;
+    // for bookings
+    private String table;
+    // for bookings and arrivals
+    private String accompanying_guests;
+    // for arrivals
+    private String time_arrived;
+    // across all tables, once the change has been made
+    private @NonNull String seats_empty;
+
+    public static GuestlistEventResponse of(GuestlistEvent event, int seatsEmpty) {
+        return new GuestlistEventResponse(
+            event.getName(),
+            event.getGuest()
+                .map(guest -> guest.getTableNumber().toString())
+                .orElse(null),
+            event.getGuest()
+                .map(guest -> guest.getAccompanyingGuests())
+                .or(() -> event.getArrivedGuest().map(arrivedGuest -> arrivedGuest.getAccompanyingGuests()))
+                .map(Object::toString)
+                .orElse(null),
+            event.getArrivedGuest()
+                .map(arrivedGuest -> arrivedGuest.getTimeArrived().toString())
+                .orElse(null),
+            String.valueOf(seatsEmpty)
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package list.guest.adapter.controller.dto;
+
+import java.util.List;
+
+import lombok.Data;
+import lombok.NonNull;
+
+@Data
+public class GuestlistSnapshotResponse {
+    private @NonNull List<GuestResponse> guest_list;
+    private @NonNull List<ArrivedGuestResponse> guests;
+    private @NonNull String seats_empty;
+
+    public static GuestlistSnapshotResponse of(List<GuestResponse> guestList, List<ArrivedGuestResponse> guests, int seatsEmpty) {
+        return new GuestlistSnapshotResponse(guestList, guests, String.valueOf(seatsEmpty));
+    }
+}
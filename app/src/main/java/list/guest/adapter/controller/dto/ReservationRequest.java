@@ -10,7 +10,7 @@ import lombok.NoArgsConstructor;
 @Data @NoArgsConstructor @AllArgsConstructor
 public class ReservationRequest {
     
-    @NotEmpty(message = "Table number is mandatory") 
+    // the smallest free table that fits the party is booked when there is none
     @Pattern(regexp = "^[0-9]{1,5}$", message = "Table number must be a number with up to 5 digits")
     private String table;
 
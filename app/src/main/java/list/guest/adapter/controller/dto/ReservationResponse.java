@@ -1,13 +1,25 @@
 package list.guest.adapter.controller.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 
-@Data 
+@Data @RequiredArgsConstructor @AllArgsConstructor
+@JsonInclude(Include.NON_NULL)
 public class ReservationResponse {
     private @NonNull String name;
+    // the table booked, when it has been picked for the guest
+    private String table;
 
     public static ReservationResponse of(String name) {
         return new ReservationResponse(name);
     }
+
+    public static ReservationResponse of(String name, int tableNumber) {
+        return new ReservationResponse(name, String.valueOf(tableNumber));
+    }
 }
@@ -1,9 +1,9 @@
 package list.guest.adapter.controller.dto;
 
-import lombok.Data;
 import lombok.NonNull;
+import lombok.Value;
 
-@Data 
+@Value
 public class ReservationResponseError {
     private @NonNull String reason;    
 }
@@ -0,0 +1,24 @@
+package list.guest.adapter.controller.dto;
+
+import list.guest.dto.TableOccupancy;
+import lombok.Data;
+import lombok.NonNull;
+
+@Data
+public class TableResponse {
+    private @NonNull String table;
+    private @NonNull String table_capacity;
+    private @NonNull String reserved_party_size;
+    private @NonNull String arrived_party_size;
+    private @NonNull String seats_empty;
+
+    public static TableResponse of(TableOccupancy tableOccupancy) {
+        return new TableResponse(
+            tableOccupancy.getTableNumber().toString(),
+            tableOccupancy.getTableCapacity().toString(),
+            tableOccupancy.getReservedPartySize().toString(),
+            tableOccupancy.getArrivedPartySize().toString(),
+            String.valueOf(tableOccupancy.getSeatsEmpty())
+        );
+    }
+}
@@ -0,0 +1,20 @@
+package list.guest.adapter.persistence;
+
+import java.util.List;
+
+import org.springframework.transaction.annotation.Transactional;
+
+public interface ArrivedGuestBatchRepository {
+
+    /**
+     * Inserts all arrivals using JDBC batching, in a single transaction
+     */
+    @Transactional
+    void insertAll(List<ArrivedGuestDb> arrivals);
+
+    /**
+     * Deletes the arrivals of all the guests named using JDBC batching, in a single transaction
+     */
+    @Transactional
+    void deleteAllByName(List<String> names);
+}
@@ -0,0 +1,38 @@
+package list.guest.adapter.persistence;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ArrivedGuestBatchRepositoryImpl implements ArrivedGuestBatchRepository {
+
+    private static final String INSERT_ARRIVAL =
+        "INSERT INTO arrived_guest_db (name, accompanying_guests, time_arrived)\n" +
+        "VALUES (:name, :accompanyingGuests, :timeArrived)";
+
+    private static final String DELETE_ARRIVAL =
+        "DELETE FROM arrived_guest_db WHERE name = :name";
+
+    private @NonNull NamedParameterJdbcOperations jdbcOperations;
+
+    @Override
+    public void insertAll(List<ArrivedGuestDb> arrivals) {
+        SqlParameterSource[] batch = SqlParameterSourceUtils.createBatch(arrivals);
+        jdbcOperations.batchUpdate(INSERT_ARRIVAL, batch);
+    }
+
+    @Override
+    public void deleteAllByName(List<String> names) {
+        SqlParameterSource[] batch = names.stream()
+            .map(name -> new MapSqlParameterSource("name", name))
+            .toArray(SqlParameterSource[]::new);
+        jdbcOperations.batchUpdate(DELETE_ARRIVAL, batch);
+    }
+}
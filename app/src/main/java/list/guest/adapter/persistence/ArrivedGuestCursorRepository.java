@@ -0,0 +1,13 @@
+package list.guest.adapter.persistence;
+
+import java.util.function.Consumer;
+
+import list.guest.dto.ArrivedGuest;
+
+public interface ArrivedGuestCursorRepository {
+
+    /**
+     * Streams every arrival through a forward-only JDBC cursor, without loading them all into memory
+     */
+    void forEachArrivedGuest(Consumer<ArrivedGuest> action);
+}
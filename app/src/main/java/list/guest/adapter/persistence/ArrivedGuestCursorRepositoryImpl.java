@@ -0,0 +1,23 @@
+package list.guest.adapter.persistence;
+
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+
+import list.guest.dto.ArrivedGuest;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ArrivedGuestCursorRepositoryImpl implements ArrivedGuestCursorRepository {
+
+    private static final String SELECT_ARRIVALS =
+        "SELECT " + Projections.ARRIVAL_COLUMNS + " FROM arrived_guest_db";
+
+    private @NonNull NamedParameterJdbcOperations jdbcOperations;
+
+    @Override
+    public void forEachArrivedGuest(Consumer<ArrivedGuest> action) {
+        Cursors.forEachRow(jdbcOperations, SELECT_ARRIVALS, resultSet -> action.accept(Projections.ARRIVAL.mapRow(resultSet, 0)));
+    }
+}
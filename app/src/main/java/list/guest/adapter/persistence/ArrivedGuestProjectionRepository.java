@@ -0,0 +1,18 @@
+package list.guest.adapter.persistence;
+
+import java.util.List;
+
+import list.guest.dto.ArrivedGuest;
+
+public interface ArrivedGuestProjectionRepository {
+
+    /**
+     * Every arrival, read straight into the guests in the venue
+     */
+    List<ArrivedGuest> findArrivedGuests();
+
+    /**
+     * Keyset pagination over the unique name, read straight into the guests in the venue
+     */
+    List<ArrivedGuest> findArrivedGuestsAfter(String after, int limit);
+}
@@ -0,0 +1,31 @@
+package list.guest.adapter.persistence;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+
+import list.guest.dto.ArrivedGuest;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ArrivedGuestProjectionRepositoryImpl implements ArrivedGuestProjectionRepository {
+
+    private static final String SELECT_ARRIVALS =
+        "SELECT " + Projections.ARRIVAL_COLUMNS + " FROM arrived_guest_db";
+    private static final String SELECT_ARRIVALS_AFTER =
+        SELECT_ARRIVALS + " WHERE name > :after ORDER BY name LIMIT :limit";
+
+    private @NonNull NamedParameterJdbcOperations jdbcOperations;
+
+    @Override
+    public List<ArrivedGuest> findArrivedGuests() {
+        return jdbcOperations.getJdbcOperations().query(SELECT_ARRIVALS, Projections.ARRIVAL);
+    }
+
+    @Override
+    public List<ArrivedGuest> findArrivedGuestsAfter(String after, int limit) {
+        return jdbcOperations.query(SELECT_ARRIVALS_AFTER, Map.of("after", after, "limit", limit), Projections.ARRIVAL);
+    }
+}
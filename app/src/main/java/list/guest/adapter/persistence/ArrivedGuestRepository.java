@@ -1,14 +1,45 @@
 package list.guest.adapter.persistence;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jdbc.repository.query.Modifying;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 
-public interface ArrivedGuestRepository extends CrudRepository<ArrivedGuestDb, Long> {
+public interface ArrivedGuestRepository extends CrudRepository<ArrivedGuestDb, Long>, ArrivedGuestCursorRepository, ArrivedGuestBatchRepository, ArrivedGuestProjectionRepository {
     
     Optional<ArrivedGuestDb> findByName(String name);
 
+    /**
+     * Keyset pagination over the unique name
+     */
+    @Query("SELECT * FROM arrived_guest_db WHERE name > :after ORDER BY name LIMIT :limit")
+    List<ArrivedGuestDb> findPageAfter(String after, int limit);
+
+    /**
+     * Checks the guest in provided they have a reservation, have not arrived yet and their party fits the table,
+     * all in a single statement. The unique name still guards against two concurrent check-ins.
+     * @return  1 if the guest has been checked in; 0 otherwise
+     */
+    @Modifying
+    @Query(
+        "INSERT INTO arrived_guest_db (name, accompanying_guests, time_arrived)\n" +
+        "SELECT r.name, :accompanyingGuests, :timeArrived\n" +
+        "FROM reservation_db r\n" +
+        "JOIN table_db t ON t.table_number = r.table_number\n" +
+        "LEFT JOIN arrived_guest_db a ON a.name = r.name\n" +
+        "WHERE r.name = :name\n" +
+        "AND t.table_capacity > :accompanyingGuests\n" +
+        "AND a.id IS NULL"
+    )
+    int checkIn(String name, int accompanyingGuests, LocalDateTime timeArrived);
+
+    @Modifying
+    @Query("DELETE FROM arrived_guest_db WHERE name = :name")
+    int deleteByName(String name);
+
     @Query(
         "SELECT SUM(t.table_capacity - COALESCE(a.accompanying_guests + 1, 0))\n" +
         "FROM table_db t\n" +
@@ -17,4 +48,32 @@ public interface ArrivedGuestRepository extends CrudRepository<ArrivedGuestDb, L
     )
     int countSeatsEmpty();    
 
+    @Query(
+        "SELECT t.table_number, t.table_capacity - COALESCE(a.accompanying_guests + 1, 0) AS seats_empty\n" +
+        "FROM table_db t\n" +
+        "LEFT JOIN reservation_db r ON t.table_number = r.table_number\n" +
+        "LEFT JOIN arrived_guest_db a ON r.name = a.name"
+    )
+    List<TableSeatsDb> countSeatsEmptyByTable();
+
+    @Query("SELECT COALESCE(SUM(accompanying_guests + 1), 0) FROM arrived_guest_db")
+    int countGuestsPresent();
+
+    /**
+     * Empties the table without publishing a delete event per arrival, before it is rebuilt
+     */
+    @Modifying
+    @Query("DELETE FROM arrived_guest_db")
+    int deleteAllArrivals();
+
+    /**
+     * @return  the id of the last attendance event the table reflects
+     */
+    @Query("SELECT last_event_id FROM arrivals_projection_db WHERE id = 1")
+    long findProjectedEventId();
+
+    @Modifying
+    @Query("UPDATE arrivals_projection_db SET last_event_id = :lastEventId WHERE id = 1")
+    int saveProjectedEventId(long lastEventId);
+
 }
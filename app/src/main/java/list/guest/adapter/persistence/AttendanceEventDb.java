@@ -0,0 +1,33 @@
+package list.guest.adapter.persistence;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.ToString;
+
+@ToString @Getter @NoArgsConstructor @AllArgsConstructor
+public class AttendanceEventDb {
+
+    public static enum Type {ARRIVED, LEFT}
+
+    // the position in the log
+    private @Id Long id;
+    private @NonNull String name;
+    private @NonNull Type type;
+    // for arrivals
+    private Integer accompanyingGuests;
+    private @NonNull LocalDateTime eventTime;
+
+    public static AttendanceEventDb arrived(ArrivedGuestDb arrival) {
+        return new AttendanceEventDb(null, arrival.getName(), Type.ARRIVED, arrival.getAccompanyingGuests(), arrival.getTimeArrived());
+    }
+
+    public static AttendanceEventDb left(String name, LocalDateTime timeLeft) {
+        return new AttendanceEventDb(null, name, Type.LEFT, null, timeLeft);
+    }
+}
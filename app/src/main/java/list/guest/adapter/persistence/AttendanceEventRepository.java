@@ -0,0 +1,18 @@
+package list.guest.adapter.persistence;
+
+import java.util.List;
+
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Only ever appended to: events are saved, never updated or deleted
+ */
+public interface AttendanceEventRepository extends CrudRepository<AttendanceEventDb, Long> {
+
+    /**
+     * The events appended after {@code id}, in the order they were appended
+     */
+    @Query("SELECT * FROM attendance_event_db WHERE id > :id ORDER BY id")
+    List<AttendanceEventDb> findAfter(long id);
+}
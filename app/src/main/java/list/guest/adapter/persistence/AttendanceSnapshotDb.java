@@ -0,0 +1,23 @@
+package list.guest.adapter.persistence;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * The guests in the venue once the attendance log had been replayed up to {@code lastEventId};
+ * they are read and written by {@link AttendanceSnapshotGuestRepository}
+ */
+@ToString @Getter @NoArgsConstructor @RequiredArgsConstructor(staticName = "of")
+public class AttendanceSnapshotDb {
+
+    private @Id Long id;
+    private @NonNull Long lastEventId;
+    private @NonNull LocalDateTime timeTaken;
+}
@@ -0,0 +1,18 @@
+package list.guest.adapter.persistence;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.transaction.annotation.Transactional;
+
+public interface AttendanceSnapshotGuestRepository {
+
+    /**
+     * Saves a snapshot with all its guests using JDBC batching, and deletes the snapshots before it, in a single transaction
+     * @return  the snapshot saved
+     */
+    @Transactional
+    AttendanceSnapshotDb saveSnapshot(AttendanceSnapshotDb snapshot, Collection<ArrivedGuestDb> guests);
+
+    List<ArrivedGuestDb> findGuests(long snapshotId);
+}
@@ -0,0 +1,53 @@
+package list.guest.adapter.persistence;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.jdbc.core.JdbcAggregateOperations;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+@RequiredArgsConstructor
+public class AttendanceSnapshotGuestRepositoryImpl implements AttendanceSnapshotGuestRepository {
+
+    private static final String INSERT_GUEST =
+        "INSERT INTO attendance_snapshot_guest_db (snapshot_id, name, accompanying_guests, time_arrived)\n" +
+        "VALUES (:snapshotId, :name, :accompanyingGuests, :timeArrived)";
+    private static final String DELETE_OLDER_SNAPSHOTS =
+        "DELETE FROM attendance_snapshot_db WHERE id < :snapshotId";
+    private static final String SELECT_GUESTS =
+        "SELECT name, accompanying_guests, time_arrived FROM attendance_snapshot_guest_db WHERE snapshot_id = :snapshotId";
+
+    private @NonNull NamedParameterJdbcOperations jdbcOperations;
+    private @NonNull JdbcAggregateOperations aggregateOperations;
+
+    @Override
+    public AttendanceSnapshotDb saveSnapshot(AttendanceSnapshotDb snapshot, Collection<ArrivedGuestDb> guests) {
+        val saved = aggregateOperations.insert(snapshot);
+        SqlParameterSource[] batch = guests.stream()
+            .map(guest -> new MapSqlParameterSource()
+                .addValue("snapshotId", saved.getId())
+                .addValue("name", guest.getName())
+                .addValue("accompanyingGuests", guest.getAccompanyingGuests())
+                .addValue("timeArrived", guest.getTimeArrived()))
+            .toArray(SqlParameterSource[]::new);
+        jdbcOperations.batchUpdate(INSERT_GUEST, batch);
+        jdbcOperations.update(DELETE_OLDER_SNAPSHOTS, Map.of("snapshotId", saved.getId()));
+        return saved;
+    }
+
+    @Override
+    public List<ArrivedGuestDb> findGuests(long snapshotId) {
+        return jdbcOperations.query(SELECT_GUESTS, Map.of("snapshotId", snapshotId), (rs, rowNum) -> ArrivedGuestDb.of(
+            rs.getString("name"),
+            rs.getInt("accompanying_guests"),
+            rs.getObject("time_arrived", LocalDateTime.class)));
+    }
+}
@@ -0,0 +1,12 @@
+package list.guest.adapter.persistence;
+
+import java.util.Optional;
+
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.CrudRepository;
+
+public interface AttendanceSnapshotRepository extends CrudRepository<AttendanceSnapshotDb, Long>, AttendanceSnapshotGuestRepository {
+
+    @Query("SELECT * FROM attendance_snapshot_db ORDER BY id DESC LIMIT 1")
+    Optional<AttendanceSnapshotDb> findLatest();
+}
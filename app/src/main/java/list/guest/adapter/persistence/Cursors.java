@@ -0,0 +1,39 @@
+package list.guest.adapter.persistence;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+
+import lombok.val;
+
+/**
+ * Runs queries through forward-only, read-only cursors that fetch a bounded number of rows at a time.
+ * MySQL Connector/J would buffer the whole result instead, unless {@code useCursorFetch=true} makes it prepare every
+ * statement on the server, so there the rows are streamed one at a time: the connection is busy until they have all been read.
+ */
+final class Cursors {
+
+    static final int FETCH_SIZE = 500;
+    // tells Connector/J to stream the rows rather than buffer them
+    private static final int MYSQL_STREAMING = Integer.MIN_VALUE;
+
+    private Cursors() {
+    }
+
+    static void forEachRow(NamedParameterJdbcOperations jdbcOperations, String sql, RowCallbackHandler rowHandler) {
+        jdbcOperations.getJdbcOperations().query(
+            connection -> {
+                val statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(isMySql(connection) ? MYSQL_STREAMING : FETCH_SIZE);
+                return statement;
+            },
+            rowHandler);
+    }
+
+    private static boolean isMySql(Connection connection) throws SQLException {
+        return "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+    }
+}
@@ -0,0 +1,31 @@
+package list.guest.adapter.persistence;
+
+import java.time.LocalDateTime;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import list.guest.dto.ArrivedGuest;
+import list.guest.dto.Guest;
+
+/**
+ * Maps the rows of the read-side queries straight into the objects handed to the use cases,
+ * by column position and without going through the entities and their reflective mapping.
+ */
+final class Projections {
+
+    static final String GUEST_COLUMNS = "name, table_number, accompanying_guests";
+    static final String ARRIVAL_COLUMNS = "name, accompanying_guests, time_arrived";
+
+    static final RowMapper<Guest> GUEST = (resultSet, rowNumber) -> Guest.of(
+        resultSet.getString(1),
+        resultSet.getInt(2),
+        resultSet.getInt(3));
+
+    static final RowMapper<ArrivedGuest> ARRIVAL = (resultSet, rowNumber) -> ArrivedGuest.of(
+        resultSet.getString(1),
+        resultSet.getInt(2),
+        resultSet.getObject(3, LocalDateTime.class));
+
+    private Projections() {
+    }
+}
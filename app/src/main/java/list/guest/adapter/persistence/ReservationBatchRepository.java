@@ -0,0 +1,14 @@
+package list.guest.adapter.persistence;
+
+import java.util.List;
+
+import org.springframework.transaction.annotation.Transactional;
+
+public interface ReservationBatchRepository {
+
+    /**
+     * Inserts all reservations using JDBC batching, in a single transaction
+     */
+    @Transactional
+    void insertAll(List<ReservationDb> reservations);
+}
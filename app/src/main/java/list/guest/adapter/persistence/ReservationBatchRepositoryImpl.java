@@ -0,0 +1,26 @@
+package list.guest.adapter.persistence;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ReservationBatchRepositoryImpl implements ReservationBatchRepository {
+
+    private static final String INSERT_RESERVATION =
+        "INSERT INTO reservation_db (name, table_number, accompanying_guests)\n" +
+        "VALUES (:name, :tableNumber, :accompanyingGuests)";
+
+    private @NonNull NamedParameterJdbcOperations jdbcOperations;
+
+    @Override
+    public void insertAll(List<ReservationDb> reservations) {
+        SqlParameterSource[] batch = SqlParameterSourceUtils.createBatch(reservations);
+        jdbcOperations.batchUpdate(INSERT_RESERVATION, batch);
+    }
+}
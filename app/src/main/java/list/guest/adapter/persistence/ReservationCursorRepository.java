@@ -0,0 +1,13 @@
+package list.guest.adapter.persistence;
+
+import java.util.function.Consumer;
+
+import list.guest.dto.Guest;
+
+public interface ReservationCursorRepository {
+
+    /**
+     * Streams every reservation through a forward-only JDBC cursor, without loading them all into memory
+     */
+    void forEachGuest(Consumer<Guest> action);
+}
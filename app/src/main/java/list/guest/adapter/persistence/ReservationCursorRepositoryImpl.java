@@ -0,0 +1,23 @@
+package list.guest.adapter.persistence;
+
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+
+import list.guest.dto.Guest;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ReservationCursorRepositoryImpl implements ReservationCursorRepository {
+
+    private static final String SELECT_RESERVATIONS =
+        "SELECT " + Projections.GUEST_COLUMNS + " FROM reservation_db";
+
+    private @NonNull NamedParameterJdbcOperations jdbcOperations;
+
+    @Override
+    public void forEachGuest(Consumer<Guest> action) {
+        Cursors.forEachRow(jdbcOperations, SELECT_RESERVATIONS, resultSet -> action.accept(Projections.GUEST.mapRow(resultSet, 0)));
+    }
+}
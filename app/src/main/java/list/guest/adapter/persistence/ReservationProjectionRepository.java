@@ -0,0 +1,18 @@
+package list.guest.adapter.persistence;
+
+import java.util.List;
+
+import list.guest.dto.Guest;
+
+public interface ReservationProjectionRepository {
+
+    /**
+     * Every reservation, read straight into the guests on the list
+     */
+    List<Guest> findGuests();
+
+    /**
+     * Keyset pagination over the unique name, read straight into the guests on the list
+     */
+    List<Guest> findGuestsAfter(String after, int limit);
+}
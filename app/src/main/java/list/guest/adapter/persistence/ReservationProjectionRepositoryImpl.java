@@ -0,0 +1,31 @@
+package list.guest.adapter.persistence;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+
+import list.guest.dto.Guest;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ReservationProjectionRepositoryImpl implements ReservationProjectionRepository {
+
+    private static final String SELECT_GUESTS =
+        "SELECT " + Projections.GUEST_COLUMNS + " FROM reservation_db";
+    private static final String SELECT_GUESTS_AFTER =
+        SELECT_GUESTS + " WHERE name > :after ORDER BY name LIMIT :limit";
+
+    private @NonNull NamedParameterJdbcOperations jdbcOperations;
+
+    @Override
+    public List<Guest> findGuests() {
+        return jdbcOperations.getJdbcOperations().query(SELECT_GUESTS, Projections.GUEST);
+    }
+
+    @Override
+    public List<Guest> findGuestsAfter(String after, int limit) {
+        return jdbcOperations.query(SELECT_GUESTS_AFTER, Map.of("after", after, "limit", limit), Projections.GUEST);
+    }
+}
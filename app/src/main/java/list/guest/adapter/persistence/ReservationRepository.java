@@ -1,13 +1,26 @@
 package list.guest.adapter.persistence;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 
-public interface ReservationRepository extends CrudRepository<ReservationDb, Long> {
+public interface ReservationRepository extends CrudRepository<ReservationDb, Long>, ReservationBatchRepository, ReservationCursorRepository, ReservationProjectionRepository {
 
     Optional<ReservationDb> findByName(String name);
 
     Optional<ReservationDb> findByTableNumber(Integer tableNumber);
 
+    List<ReservationDb> findByNameIn(Collection<String> names);
+
+    List<ReservationDb> findByTableNumberIn(Collection<Integer> tableNumbers);
+
+    /**
+     * Keyset pagination over the unique name
+     */
+    @Query("SELECT * FROM reservation_db WHERE name > :after ORDER BY name LIMIT :limit")
+    List<ReservationDb> findPageAfter(String after, int limit);
+
 }
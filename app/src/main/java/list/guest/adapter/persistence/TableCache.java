@@ -0,0 +1,60 @@
+package list.guest.adapter.persistence;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.relational.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.relational.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Table definitions cached by {@link TableRepository#findByTableNumber}.
+ * Entries are evicted once a change to a table has been committed, so that a lookup
+ * made in the meantime cannot put the old definition back, and the cache is filled with
+ * every table at startup so that the first bookings do not have to wait for the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TableCache {
+
+    public static final String NAME = "tables";
+
+    private @NonNull CacheManager cacheManager;
+    private @NonNull TableRepository tableRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        val cache = cache();
+        tableRepository.findAll().forEach(tableDB -> cache.put(tableDB.getTableNumber(), tableDB));
+        log.info("Table cache prewarmed");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAfterSave(AfterSaveEvent<?> event) {
+        if (event.getEntity() instanceof TableDb) {
+            cache().evict(((TableDb) event.getEntity()).getTableNumber());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAfterDelete(AfterDeleteEvent<?> event) {
+        if (event.getEntity() instanceof TableDb) {
+            cache().evict(((TableDb) event.getEntity()).getTableNumber());
+        } else if (event.getEntity() == null && TableDb.class.equals(event.getType())) {
+            // deleted by id or in bulk, so we cannot tell which
+            cache().clear();
+        }
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(NAME);
+    }
+}
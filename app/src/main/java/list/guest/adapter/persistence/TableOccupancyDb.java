@@ -0,0 +1,36 @@
+package list.guest.adapter.persistence;
+
+import list.guest.dto.TableOccupancy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@ToString @Getter @NoArgsConstructor @AllArgsConstructor(staticName = "of")
+public class TableOccupancyDb {
+
+    /**
+     * Every table with its reservation and arrival, if any; a table has one reservation at most
+     */
+    public static final String QUERY =
+        "SELECT t.table_number, t.table_capacity,\n" +
+        "COALESCE(r.accompanying_guests + 1, 0) AS reserved_party_size,\n" +
+        "COALESCE(a.accompanying_guests + 1, 0) AS arrived_party_size\n" +
+        "FROM table_db t\n" +
+        "LEFT JOIN reservation_db r ON r.table_number = t.table_number\n" +
+        "LEFT JOIN arrived_guest_db a ON a.name = r.name\n";
+
+    private Integer tableNumber;
+    private Integer tableCapacity;
+    private Integer reservedPartySize;
+    private Integer arrivedPartySize;
+
+    public TableOccupancy occupancy() {
+        return TableOccupancy.of(
+            this.tableNumber,
+            this.tableCapacity,
+            this.reservedPartySize,
+            this.arrivedPartySize
+        );
+    }
+}
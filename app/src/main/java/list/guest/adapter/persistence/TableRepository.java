@@ -1,10 +1,29 @@
 package list.guest.adapter.persistence;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 
 public interface TableRepository extends CrudRepository<TableDb, Long> {
 
+    /**
+     * Served from the {@code tables} cache, unknown table numbers included; see {@link TableCache}
+     */
+    @Cacheable(TableCache.NAME)
     Optional<TableDb> findByTableNumber(Integer tableNumber);
+
+    List<TableDb> findByTableNumberIn(Collection<Integer> tableNumbers);
+
+    @Query(TableOccupancyDb.QUERY + "ORDER BY t.table_number")
+    List<TableOccupancyDb> findOccupancy();
+
+    /**
+     * The tables nobody has booked yet that can seat {@code partySize} people, the guest included
+     */
+    @Query(TableOccupancyDb.QUERY + "WHERE r.id IS NULL AND t.table_capacity >= :partySize ORDER BY t.table_number")
+    List<TableOccupancyDb> findOccupancyAvailableFor(int partySize);
 }
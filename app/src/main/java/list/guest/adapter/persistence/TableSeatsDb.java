@@ -0,0 +1,13 @@
+package list.guest.adapter.persistence;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@ToString @Getter @NoArgsConstructor @AllArgsConstructor(staticName = "of")
+public class TableSeatsDb {
+
+    private Integer tableNumber;
+    private Integer seatsEmpty;
+}
@@ -0,0 +1,63 @@
+package list.guest.adapter.persistence.reactive;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The non-blocking counterpart of {@code ArrivedGuestRepository}, with the same queries
+ */
+public interface ReactiveArrivedGuestRepository extends R2dbcRepository<ArrivedGuestDb, Long> {
+
+    Mono<ArrivedGuestDb> findByName(String name);
+
+    @Query("SELECT * FROM arrived_guest_db ORDER BY name")
+    Flux<ArrivedGuestDb> findAllOrderedByName();
+
+    /**
+     * @return  1 if the guest has been checked in; 0 otherwise
+     * @see     list.guest.adapter.persistence.ArrivedGuestRepository#checkIn
+     */
+    @Modifying
+    @Query(
+        "INSERT INTO arrived_guest_db (name, accompanying_guests, time_arrived)\n" +
+        "SELECT r.name, :accompanyingGuests, :timeArrived\n" +
+        "FROM reservation_db r\n" +
+        "JOIN table_db t ON t.table_number = r.table_number\n" +
+        "LEFT JOIN arrived_guest_db a ON a.name = r.name\n" +
+        "WHERE r.name = :name\n" +
+        "AND t.table_capacity > :accompanyingGuests\n" +
+        "AND a.id IS NULL"
+    )
+    Mono<Integer> checkIn(String name, int accompanyingGuests, LocalDateTime timeArrived);
+
+    @Modifying
+    @Query("DELETE FROM arrived_guest_db WHERE name = :name")
+    Mono<Integer> deleteByName(String name);
+
+    @Query(
+        "SELECT COALESCE(SUM(t.table_capacity - COALESCE(a.accompanying_guests + 1, 0)), 0)\n" +
+        "FROM table_db t\n" +
+        "LEFT JOIN reservation_db r ON t.table_number = r.table_number\n" +
+        "LEFT JOIN arrived_guest_db a ON r.name = a.name"
+    )
+    Mono<Long> countSeatsEmpty();
+
+    /**
+     * @return  the seats empty at the table; empty if there is no such table
+     */
+    @Query(
+        "SELECT t.table_capacity - COALESCE(a.accompanying_guests + 1, 0)\n" +
+        "FROM table_db t\n" +
+        "LEFT JOIN reservation_db r ON t.table_number = r.table_number\n" +
+        "LEFT JOIN arrived_guest_db a ON r.name = a.name\n" +
+        "WHERE t.table_number = :tableNumber"
+    )
+    Mono<Long> countSeatsEmptyAt(int tableNumber);
+}
@@ -0,0 +1,18 @@
+package list.guest.adapter.persistence.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+
+import list.guest.adapter.persistence.ReservationDb;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveReservationRepository extends R2dbcRepository<ReservationDb, Long> {
+
+    Mono<ReservationDb> findByName(String name);
+
+    Mono<ReservationDb> findByTableNumber(Integer tableNumber);
+
+    @Query("SELECT * FROM reservation_db ORDER BY name")
+    Flux<ReservationDb> findAllOrderedByName();
+}
@@ -0,0 +1,26 @@
+package list.guest.adapter.persistence.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+
+import list.guest.adapter.persistence.TableDb;
+import list.guest.adapter.persistence.TableOccupancyDb;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveTableRepository extends R2dbcRepository<TableDb, Long> {
+
+    Mono<TableDb> findByTableNumber(Integer tableNumber);
+
+    @Query(TableOccupancyDb.QUERY + "ORDER BY t.table_number")
+    Flux<TableOccupancyDb> findOccupancy();
+
+    @Query(TableOccupancyDb.QUERY + "WHERE r.id IS NULL AND t.table_capacity >= :partySize ORDER BY t.table_number")
+    Flux<TableOccupancyDb> findOccupancyAvailableFor(int partySize);
+
+    /**
+     * The smallest table nobody has booked yet that can seat {@code partySize} people, the guest included
+     */
+    @Query(TableOccupancyDb.QUERY + "WHERE r.id IS NULL AND t.table_capacity >= :partySize ORDER BY t.table_capacity, t.table_number LIMIT 1")
+    Mono<TableOccupancyDb> findSmallestAvailableFor(int partySize);
+}
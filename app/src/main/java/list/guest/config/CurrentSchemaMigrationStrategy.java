@@ -0,0 +1,91 @@
+package list.guest.config;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Leaves Flyway out when the schema history already records the latest versioned migration on the classpath,
+ * which is what every start but the first one after a deployment finds. Flyway would otherwise scan and parse
+ * every migration, checksum them against the history and lock it, only to do nothing.
+ * The catch is that an applied migration edited in place goes unnoticed until the next new migration.
+ */
+@Slf4j
+public class CurrentSchemaMigrationStrategy implements FlywayMigrationStrategy {
+
+    private final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    @Override
+    public void migrate(Flyway flyway) {
+        val configuration = flyway.getConfiguration();
+        try {
+            val latest = latestMigration(configuration);
+            val applied = appliedVersion(configuration);
+            if (latest.isPresent() && applied.isPresent() && applied.get().compareTo(latest.get()) >= 0) {
+                log.info("Schema at version {} already; migration skipped", applied.get());
+                return;
+            }
+        } catch (IOException | SQLException e) {
+            log.debug("Schema version unknown; migrating", e);
+        }
+        flyway.migrate();
+    }
+
+    /**
+     * @return  the highest version among the versioned SQL migrations in the classpath locations
+     */
+    private Optional<MigrationVersion> latestMigration(Configuration configuration) throws IOException {
+        val prefix = configuration.getSqlMigrationPrefix();
+        val separator = configuration.getSqlMigrationSeparator();
+        MigrationVersion latest = null;
+        for (Location location : configuration.getLocations()) {
+            if (!location.isClassPath()) {
+                // only classpath migrations can be listed this cheaply, so let Flyway look
+                return Optional.empty();
+            }
+            for (Resource resource : resolver.getResources("classpath*:" + location.getPath() + "/" + prefix + "*" + separator + "*")) {
+                val name = resource.getFilename();
+                val version = MigrationVersion.fromVersion(name.substring(prefix.length(), name.indexOf(separator)));
+                if (latest == null || version.compareTo(latest) > 0) {
+                    latest = version;
+                }
+            }
+        }
+        return Optional.ofNullable(latest);
+    }
+
+    /**
+     * @return  the highest version the schema history records as applied successfully, if it exists
+     */
+    private Optional<MigrationVersion> appliedVersion(Configuration configuration) throws SQLException {
+        try (Connection connection = configuration.getDataSource().getConnection()) {
+            // Flyway quotes the identifiers of its history table, which keeps them lower case on H2
+            val quote = connection.getMetaData().getIdentifierQuoteString().trim();
+            val version = quote + "version" + quote;
+            val query = "SELECT " + version + " FROM " + quote + configuration.getTable() + quote
+                + " WHERE " + quote + "success" + quote + " = TRUE AND " + version + " IS NOT NULL";
+            try (val statement = connection.createStatement(); val versions = statement.executeQuery(query)) {
+                MigrationVersion applied = null;
+                while (versions.next()) {
+                    val appliedVersion = MigrationVersion.fromVersion(versions.getString(1));
+                    if (applied == null || appliedVersion.compareTo(applied) > 0) {
+                        applied = appliedVersion;
+                    }
+                }
+                return Optional.ofNullable(applied);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package list.guest.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Shortens the time to the first request served, for instances started right before they are needed:
+ * the OpenAPI documentation is only built when first asked for, and the migrations are skipped when the schema
+ * is current already. Goes with the class data sharing archive built into the image; see the Dockerfile.
+ */
+@Slf4j
+@Configuration
+@Profile("fast-startup")
+public class FastStartupConfiguration {
+
+    private static final String DOCUMENTATION_PACKAGE = "org.springdoc.";
+
+    /**
+     * Makes the springdoc beans lazy, so the controllers are only scanned for their documentation on its first request
+     */
+    @Bean
+    static BeanFactoryPostProcessor lazyDocumentation() {
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                val definition = beanFactory.getBeanDefinition(beanName);
+                if (declaringClassName(definition).startsWith(DOCUMENTATION_PACKAGE)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    @Bean
+    FlywayMigrationStrategy currentSchemaMigrationStrategy() {
+        return new CurrentSchemaMigrationStrategy();
+    }
+
+    /**
+     * Stops the instance as soon as it is ready to serve, for the training run that records the classes
+     * loaded at startup into the class data sharing archive, and for timing startups
+     */
+    @Bean
+    @ConditionalOnProperty(name = "guestlist.startup.exit-when-ready", havingValue = "true")
+    ApplicationListener<ApplicationReadyEvent> exitWhenReady() {
+        return event -> {
+            log.info("Ready; exiting as guestlist.startup.exit-when-ready is set");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        };
+    }
+
+    /**
+     * @return  the class of the bean, or the one declaring its factory method
+     */
+    private static String declaringClassName(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition
+                && ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata() != null) {
+            return ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return definition.getBeanClassName() == null ? "" : definition.getBeanClassName();
+    }
+}
@@ -0,0 +1,42 @@
+package list.guest.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import list.guest.usecase.seating.SeatCounter;
+
+/**
+ * Times the methods annotated with {@code @Timed} and publishes the venue occupancy as gauges,
+ * except under the reactive profile, whose use cases keep no counts of their own.
+ * Repository calls are timed by Spring Boot as {@code spring.data.repository.invocations}.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // plain beans rather than a MeterBinder: binders are applied while the registry is being created,
+    // and the SeatCounter cannot be loaded until then as its queries are timed
+    @Bean
+    @Profile("!reactive")
+    Gauge seatsEmptyGauge(MeterRegistry meterRegistry, SeatCounter seatCounter) {
+        return Gauge.builder("guestlist.seats.empty", seatCounter, SeatCounter::getSeatsEmpty)
+            .description("Seats empty across all tables")
+            .register(meterRegistry);
+    }
+
+    @Bean
+    @Profile("!reactive")
+    Gauge guestsPresentGauge(MeterRegistry meterRegistry, SeatCounter seatCounter) {
+        return Gauge.builder("guestlist.guests.present", seatCounter, SeatCounter::getGuestsPresent)
+            .description("People in the venue, guests and their entourages")
+            .register(meterRegistry);
+    }
+}
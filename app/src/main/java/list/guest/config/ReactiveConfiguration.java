@@ -0,0 +1,61 @@
+package list.guest.config;
+
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jdbc.core.convert.JdbcCustomConversions;
+import org.springframework.data.jdbc.core.mapping.JdbcMappingContext;
+import org.springframework.data.jdbc.repository.config.AbstractJdbcConfiguration;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.data.relational.core.mapping.NamingStrategy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import list.guest.adapter.persistence.reactive.ReactiveTableRepository;
+
+/**
+ * Enables the R2DBC repositories for the reactive profile.
+ * Spring Boot backs off the JDBC data source and transaction manager once there is an R2DBC connection factory,
+ * but Flyway and the JDBC repositories still need them, so they are declared here.
+ * The JDBC mapping context is made primary, as the JDBC repositories would otherwise find the R2DBC one as well.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+@EnableR2dbcRepositories(basePackageClasses = ReactiveTableRepository.class)
+public class ReactiveConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+    }
+
+    @Bean
+    @Primary
+    DataSourceTransactionManager transactionManager(DataSource dataSource) {
+        return new DataSourceTransactionManager(dataSource);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class JdbcConfiguration extends AbstractJdbcConfiguration {
+
+        @Bean
+        @Primary
+        @Override
+        public JdbcMappingContext jdbcMappingContext(Optional<NamingStrategy> namingStrategy, JdbcCustomConversions customConversions) {
+            return super.jdbcMappingContext(namingStrategy, customConversions);
+        }
+    }
+}
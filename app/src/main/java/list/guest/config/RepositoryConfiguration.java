@@ -0,0 +1,19 @@
+package list.guest.config;
+
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jdbc.repository.config.EnableJdbcRepositories;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import list.guest.adapter.persistence.TableRepository;
+
+/**
+ * Keeps Spring Data JDBC away from the reactive repositories, which only exist with the reactive profile
+ */
+@Configuration
+@EnableJdbcRepositories(
+    basePackageClasses = TableRepository.class,
+    excludeFilters = @Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveCrudRepository.class))
+public class RepositoryConfiguration {
+}
@@ -0,0 +1,101 @@
+package list.guest.config;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import list.guest.adapter.persistence.ArrivedGuestRepository;
+import list.guest.adapter.persistence.AttendanceEventRepository;
+import list.guest.adapter.persistence.AttendanceSnapshotRepository;
+import list.guest.adapter.persistence.ReservationRepository;
+import list.guest.adapter.persistence.TableRepository;
+import list.guest.usecase.seating.AsyncSeatingWriter;
+import list.guest.usecase.seating.AttendanceLog;
+import list.guest.usecase.seating.AttendanceLogSeatingWriter;
+import list.guest.usecase.seating.BatchingSeatingWriter;
+import list.guest.usecase.seating.SeatingState;
+import list.guest.usecase.seating.SeatingWriter;
+import list.guest.usecase.seating.SeatingWriter.Durability;
+import list.guest.usecase.seating.SyncSeatingWriter;
+import lombok.val;
+
+/**
+ * Enables the in-memory seating state when {@code guestlist.seating.in-memory=true}, and its attendance log
+ * when {@code guestlist.seating.attendance-log=true} as well
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "guestlist.seating.in-memory", havingValue = "true")
+public class SeatingConfiguration {
+
+    @Bean(initMethod = "reconcile")
+    @ConditionalOnProperty(name = "guestlist.seating.attendance-log", havingValue = "true")
+    AttendanceLog attendanceLog(
+            AttendanceEventRepository attendanceEventRepository,
+            AttendanceSnapshotRepository attendanceSnapshotRepository,
+            ArrivedGuestRepository arrivedGuestRepository) {
+
+        return new AttendanceLog(attendanceEventRepository, attendanceSnapshotRepository, arrivedGuestRepository);
+    }
+
+    @Bean
+    SeatingWriter seatingWriter(
+            @Value("${guestlist.seating.durability:SYNC}") Durability durability,
+            @Value("${guestlist.seating.batch.queue-capacity:10000}") int queueCapacity,
+            @Value("${guestlist.seating.batch.max-size:500}") int maxBatchSize,
+            @Value("${guestlist.seating.batch.max-delay:10}") long maxDelay,
+            @Value("${guestlist.seating.batch.enqueue-timeout:1000}") long enqueueTimeout,
+            ReservationRepository reservationRepository,
+            ArrivedGuestRepository arrivedGuestRepository,
+            Optional<AttendanceLog> attendanceLog,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+
+        SeatingWriter syncWriter = new SyncSeatingWriter(reservationRepository, arrivedGuestRepository);
+        if (attendanceLog.isPresent()) {
+            syncWriter = new AttendanceLogSeatingWriter(syncWriter, attendanceLog.get(), new TransactionTemplate(transactionManager));
+        }
+        switch (durability) {
+            case ASYNC:
+                return new AsyncSeatingWriter(syncWriter);
+            case BATCHED:
+                val batchingWriter = new BatchingSeatingWriter(syncWriter, new TransactionTemplate(transactionManager),
+                    queueCapacity, maxBatchSize, maxDelay, enqueueTimeout);
+                Gauge.builder("guestlist.seating.queue", batchingWriter, BatchingSeatingWriter::getQueued)
+                    .description("Seating writes waiting to be written to the database")
+                    .register(meterRegistry);
+                return batchingWriter;
+            default:
+                return syncWriter;
+        }
+    }
+
+    @Bean(initMethod = "load")
+    @DependsOn("arrivalsProjection")
+    SeatingState seatingState(
+            TableRepository tableRepository,
+            ReservationRepository reservationRepository,
+            ArrivedGuestRepository arrivedGuestRepository,
+            Optional<AttendanceLog> attendanceLog,
+            SeatingWriter seatingWriter) {
+
+        // the arrivals are replayed from the attendance log when it is on, which has been reconciled with the table by then;
+        // when it is off, the table has been rebuilt from the log if the log was on last
+        Supplier<? extends Iterable<ArrivedGuestDb>> arrivals = attendanceLog.isPresent()
+            ? attendanceLog.get()::replay
+            : arrivedGuestRepository::findAll;
+        return new SeatingState(tableRepository, reservationRepository, arrivals, seatingWriter);
+    }
+}
@@ -0,0 +1,23 @@
+package list.guest.dto;
+
+import java.util.Optional;
+
+import list.guest.usecase.exceptions.GuestListException.ErrorType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NonNull;
+
+@Data @AllArgsConstructor(staticName = "of")
+public class BookingResult {
+    private @NonNull String name;
+    // why the booking has been rejected; empty if the table has been booked
+    private @NonNull Optional<ErrorType> errorType;
+
+    public static BookingResult booked(String name) {
+        return of(name, Optional.empty());
+    }
+
+    public static BookingResult rejected(String name, ErrorType errorType) {
+        return of(name, Optional.of(errorType));
+    }
+}
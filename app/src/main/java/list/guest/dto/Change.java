@@ -0,0 +1,17 @@
+package list.guest.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NonNull;
+
+@Data @AllArgsConstructor(staticName = "of")
+public class Change {
+    // in the order the changes were made, starting at 1
+    private long sequence;
+    private @NonNull LocalDateTime time;
+    private @NonNull GuestlistEvent event;
+    // across all tables, as counted right after the change was made
+    private int seatsEmpty;
+}
@@ -0,0 +1,32 @@
+package list.guest.dto;
+
+import java.util.Optional;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NonNull;
+
+@Data @AllArgsConstructor(staticName = "of")
+public class GuestlistEvent {
+
+    public enum Type {BOOKED, ARRIVED, LEFT}
+
+    private @NonNull Type type;
+    private @NonNull String name;
+    // the reservation made, for BOOKED
+    private @NonNull Optional<Guest> guest;
+    // the arrival, for ARRIVED
+    private @NonNull Optional<ArrivedGuest> arrivedGuest;
+
+    public static GuestlistEvent booked(Guest guest) {
+        return of(Type.BOOKED, guest.getName(), Optional.of(guest), Optional.empty());
+    }
+
+    public static GuestlistEvent arrived(ArrivedGuest arrivedGuest) {
+        return of(Type.ARRIVED, arrivedGuest.getName(), Optional.empty(), Optional.of(arrivedGuest));
+    }
+
+    public static GuestlistEvent left(String name) {
+        return of(Type.LEFT, name, Optional.empty(), Optional.empty());
+    }
+}
@@ -0,0 +1,19 @@
+package list.guest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NonNull;
+
+@Data @AllArgsConstructor(staticName = "of")
+public class TableOccupancy {
+    private @NonNull Integer tableNumber;
+    private @NonNull Integer tableCapacity;
+    // the guest who booked the table and their entourage; 0 if the table is free
+    private @NonNull Integer reservedPartySize;
+    // the part of the reserved party in the venue at the moment
+    private @NonNull Integer arrivedPartySize;
+
+    public int getSeatsEmpty() {
+        return tableCapacity - arrivedPartySize;
+    }
+}
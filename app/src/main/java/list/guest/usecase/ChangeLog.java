@@ -0,0 +1,119 @@
+package list.guest.usecase;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import list.guest.dto.Change;
+import list.guest.dto.GuestlistEvent;
+import lombok.val;
+
+/**
+ * The latest bookings, arrivals and departures made through this instance, numbered in the order they were made,
+ * so that clients can catch up on what they have missed instead of reading the lists again.
+ * Only the last {@code capacity} changes are kept, in a ring buffer: older ones are dropped as new ones come in.
+ */
+@Component
+@Profile("!reactive")
+public class ChangeLog {
+
+    private final Change[] changes;
+    // written under the lock; read without it for the versions
+    private volatile long lastSequence;
+    private volatile long lastBookingSequence;
+    private volatile long lastAttendanceSequence;
+    // when the last change dropped to make room was made, if any
+    private LocalDateTime lastDropped;
+
+    public ChangeLog(@Value("${guestlist.changes.capacity}") int capacity) {
+        this.changes = new Change[capacity];
+    }
+
+    /**
+     * @param seatsEmpty    the seats empty across all tables right after the change was made
+     */
+    public synchronized Change append(GuestlistEvent event, int seatsEmpty) {
+        val sequence = lastSequence + 1;
+        val slot = slot(sequence);
+        if (changes[slot] != null) {
+            lastDropped = changes[slot].getTime();
+        }
+        val change = Change.of(sequence, LocalDateTime.now(), event, seatsEmpty);
+        changes[slot] = change;
+        lastSequence = sequence;
+        if (event.getType() == GuestlistEvent.Type.BOOKED) {
+            lastBookingSequence = sequence;
+        } else {
+            lastAttendanceSequence = sequence;
+        }
+        return change;
+    }
+
+    /**
+     * @return  the sequence number of the last change made; 0 if there has been none
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * @return  the sequence number of the last booking made; 0 if there has been none
+     */
+    public long getLastBookingSequence() {
+        return lastBookingSequence;
+    }
+
+    /**
+     * @return  the sequence number of the last arrival or departure; 0 if there has been none
+     */
+    public long getLastAttendanceSequence() {
+        return lastAttendanceSequence;
+    }
+
+    /**
+     * @return  the changes made after the one numbered {@code sequence}, oldest first; empty if some of them
+     *          have been dropped already or {@code sequence} is not one this instance has got to
+     */
+    public synchronized Optional<List<Change>> since(long sequence) {
+
+        if (sequence < 0 || sequence > lastSequence || sequence < lastSequence - changes.length) {
+            return Optional.empty();
+        }
+        val since = new ArrayList<Change>((int) (lastSequence - sequence));
+        for (long next = sequence + 1; next <= lastSequence; next++) {
+            since.add(changes[slot(next)]);
+        }
+        return Optional.of(since);
+    }
+
+    /**
+     * @return  the changes made after {@code time}, oldest first; empty if some of them have been dropped already
+     */
+    public synchronized Optional<List<Change>> since(LocalDateTime time) {
+
+        if (lastDropped != null && lastDropped.isAfter(time)) {
+            return Optional.empty();
+        }
+        // the latest changes are the ones asked for most, so they are looked for from the end
+        val since = new ArrayList<Change>();
+        for (long sequence = lastSequence; sequence > Math.max(0, lastSequence - changes.length); sequence--) {
+            val change = changes[slot(sequence)];
+            if (!change.getTime().isAfter(time)) {
+                break;
+            }
+            since.add(change);
+        }
+        Collections.reverse(since);
+        return Optional.of(since);
+    }
+
+    private int slot(long sequence) {
+        return (int) ((sequence - 1) % changes.length);
+    }
+}
@@ -1,32 +1,58 @@
 package list.guest.usecase;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.StreamSupport;
+import java.util.Optional;
+import java.util.function.Consumer;
 import static java.util.stream.Collectors.*;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
-import list.guest.adapter.persistence.ArrivedGuestDb;
+import io.micrometer.core.annotation.Timed;
 import list.guest.adapter.persistence.ArrivedGuestRepository;
 import list.guest.adapter.persistence.ReservationDb;
 import list.guest.adapter.persistence.ReservationRepository;
+import list.guest.adapter.persistence.TableDb;
+import list.guest.adapter.persistence.TableOccupancyDb;
 import list.guest.adapter.persistence.TableRepository;
 import list.guest.dto.ArrivedGuest;
+import list.guest.dto.BookingResult;
+import list.guest.dto.Change;
 import list.guest.dto.Guest;
+import list.guest.dto.GuestlistEvent;
+import list.guest.dto.TableOccupancy;
 import list.guest.usecase.exceptions.GuestListException;
 import list.guest.usecase.exceptions.GuestListException.ErrorType;
+import list.guest.usecase.search.GuestNameIndex;
+import list.guest.usecase.seating.FreeTables;
+import list.guest.usecase.seating.SeatCounter;
+import list.guest.usecase.seating.SeatingState;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
 
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class GuestlistService {
 
     private @NonNull TableRepository tableRepository;
     private @NonNull ReservationRepository reservationRepository;
     private @NonNull ArrivedGuestRepository arrivedGuestRepository;
+    // present when the in-memory seating state is enabled; it then answers all checks and queries
+    private @NonNull Optional<SeatingState> seatingState;
+    private @NonNull SeatCounter seatCounter;
+    private @NonNull FreeTables freeTables;
+    private @NonNull GuestNameIndex guestNameIndex;
+    // numbers every booking, arrival and departure, and keeps the latest ones for the clients catching up
+    private @NonNull ChangeLog changeLog;
+    // tells the live subscribers about every booking, arrival and departure
+    private @NonNull ApplicationEventPublisher eventPublisher;
 
     /**
      * Books a table for a guest if it has capacity to seat the number of accompanying guests
@@ -35,8 +61,15 @@ public class GuestlistService {
      * @param accompanyingNumber    the number of people expected to accompany the guest; they must fit in the table capacity.
      * @return  the guest's name.
      */
+    @Timed("guestlist.usecase")
     public String bookTable(String guestName, int tableNumber, int accompanyingNumber) throws GuestListException {
 
+        if (this.seatingState.isPresent()) {
+            this.seatingState.get().bookTable(guestName, tableNumber, accompanyingNumber);
+            freeTables.booked(tableNumber);
+            changed(GuestlistEvent.booked(Guest.of(guestName, tableNumber, accompanyingNumber)));
+            return guestName;
+        }
         val tableDB = this.tableRepository.findByTableNumber(tableNumber)
             .orElseThrow(() -> GuestListException.of(ErrorType.TABLE_NOT_FOUND));
         // Guest cannot have a table reserved
@@ -51,24 +84,178 @@ public class GuestlistService {
         if (tableDB.getTableCapacity() <= accompanyingNumber) { 
             throw GuestListException.of(ErrorType.TABLE_CAPACITY_EXCEEDED);
         }
-        reservationRepository.save(ReservationDb.of(
-            guestName, 
-            tableNumber, 
-            accompanyingNumber)
-        );
+        try {
+            reservationRepository.save(ReservationDb.of(
+                guestName, 
+                tableNumber, 
+                accompanyingNumber)
+            );
+        } catch (DuplicateKeyException e) {
+            // a concurrent booking of the guest or the table got there first
+            throw bookingRejection(guestName);
+        }
+        freeTables.booked(tableNumber);
+        changed(GuestlistEvent.booked(Guest.of(guestName, tableNumber, accompanyingNumber)));
         return guestName;
     }
 
+    /**
+     * Books the smallest free table that can seat the guest and their entourage, applying the same rules as {@link #bookTable}
+     * @param guestName             the guest's name; they cannot have a reservation already.
+     * @param accompanyingNumber    the number of people expected to accompany the guest; a free table must fit them.
+     * @return  the number of the table booked
+     */
+    @Timed("guestlist.usecase")
+    public int bookAnyTable(String guestName, int accompanyingNumber) throws GuestListException {
+
+        while (true) {
+            val tableNumber = freeTables.take(accompanyingNumber + 1)
+                .orElseThrow(() -> GuestListException.of(ErrorType.NO_TABLE_AVAILABLE));
+            try {
+                bookTable(guestName, tableNumber, accompanyingNumber);
+                return tableNumber;
+            } catch (DataAccessException e) {
+                // the booking has not been made, so the table is still free
+                freeTables.released(tableNumber);
+                throw e;
+            } catch (GuestListException e) {
+                if (e.getErrorType() == ErrorType.GUEST_BOOKED_ALREADY) {
+                    // the table is still free
+                    freeTables.released(tableNumber);
+                    throw e;
+                }
+                // the table has been booked, resized or removed behind the index's back; it stays out of it, so try the next one
+            }
+        }
+    }
+
+    /**
+     * Books tables for a batch of guests, applying the same rules as {@link #bookTable} to each of them in turn.
+     * The batch is validated with a handful of set-based queries and the accepted bookings are inserted in one JDBC batch.
+     * @param bookings  the guests to book, with their table and accompanying number; a guest or table taken earlier in the batch is no longer available.
+     * @return  the outcome of each booking, in the same order
+     */
+    @Timed("guestlist.usecase")
+    public List<BookingResult> bookTables(List<Guest> bookings) {
+
+        if (this.seatingState.isPresent()) {
+            val results = this.seatingState.get().bookTables(bookings);
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i).getErrorType().isEmpty()) {
+                    freeTables.booked(bookings.get(i).getTableNumber());
+                    changed(GuestlistEvent.booked(bookings.get(i)));
+                }
+            }
+            return results;
+        }
+        val names = bookings.stream().map(Guest::getName).collect(toSet());
+        val tableNumbers = bookings.stream().map(Guest::getTableNumber).collect(toSet());
+        val tableCapacities = this.tableRepository.findByTableNumberIn(tableNumbers).stream()
+            .collect(toMap(TableDb::getTableNumber, TableDb::getTableCapacity));
+        // filled in as the batch books them too
+        val bookedNames = this.reservationRepository.findByNameIn(names).stream()
+            .map(ReservationDb::getName)
+            .collect(toSet());
+        val bookedTables = this.reservationRepository.findByTableNumberIn(tableNumbers).stream()
+            .map(ReservationDb::getTableNumber)
+            .collect(toSet());
+
+        val results = new ArrayList<BookingResult>(bookings.size());
+        val reservations = new ArrayList<ReservationDb>();
+        // position in the batch of each reservation to insert
+        val positions = new ArrayList<Integer>();
+        for (val booking : bookings) {
+            val tableCapacity = tableCapacities.get(booking.getTableNumber());
+            if (tableCapacity == null) {
+                results.add(BookingResult.rejected(booking.getName(), ErrorType.TABLE_NOT_FOUND));
+            } else if (bookedNames.contains(booking.getName())) {
+                results.add(BookingResult.rejected(booking.getName(), ErrorType.GUEST_BOOKED_ALREADY));
+            } else if (bookedTables.contains(booking.getTableNumber())) {
+                results.add(BookingResult.rejected(booking.getName(), ErrorType.TABLE_NOT_AVAILABLE));
+            } else if (tableCapacity <= booking.getAccompanyingGuests()) {
+                results.add(BookingResult.rejected(booking.getName(), ErrorType.TABLE_CAPACITY_EXCEEDED));
+            } else {
+                bookedNames.add(booking.getName());
+                bookedTables.add(booking.getTableNumber());
+                reservations.add(ReservationDb.of(booking.getName(), booking.getTableNumber(), booking.getAccompanyingGuests()));
+                positions.add(results.size());
+                results.add(BookingResult.booked(booking.getName()));
+            }
+        }
+        try {
+            reservationRepository.insertAll(reservations);
+            for (val reservationDB : reservations) {
+                freeTables.booked(reservationDB.getTableNumber());
+                changed(GuestlistEvent.booked(reservationDB.guest()));
+            }
+        } catch (DuplicateKeyException e) {
+            // a concurrent booking took one of the guests or tables; the batch has been rolled back,
+            // so book them one at a time to find out which; bookTable reports a clash with a booking made
+            // meanwhile as a rejection too, so it only ends up in that guest's result
+            for (int i = 0; i < reservations.size(); i++) {
+                val reservationDB = reservations.get(i);
+                try {
+                    bookTable(reservationDB.getName(), reservationDB.getTableNumber(), reservationDB.getAccompanyingGuests());
+                } catch (GuestListException rejection) {
+                    results.set(positions.get(i), BookingResult.rejected(reservationDB.getName(), rejection.getErrorType()));
+                }
+            }
+        }
+        return results;
+    }
+
     /**
      * Retrieves the list of all guests
      * @return  the list of guests
      * @see     Reservation class
      */
+    @Timed("guestlist.usecase")
     public List<Guest> getGuestlist() {
             
-        return StreamSupport.stream(this.reservationRepository.findAll().spliterator(), false)
-            .map(ReservationDb::guest)
-            .collect(toList());
+        if (this.seatingState.isPresent()) {
+            return this.seatingState.get().getGuestlist();
+        }
+        return this.reservationRepository.findGuests();
+    }
+
+    /**
+     * Finds the guests from the start of any of their names or a misspelling of their name, e.g. for the door staff
+     * @param query     what has been typed
+     * @param limit     the maximum number of guests returned
+     * @return  the guests matching, the best match first
+     */
+    @Timed("guestlist.usecase")
+    public List<Guest> searchGuests(String query, int limit) {
+        return this.guestNameIndex.search(query, limit);
+    }
+
+    /**
+     * Retrieves a page of the guest list, ordered by name
+     * @param after     the name of the last guest on the previous page; empty for the first page.
+     * @param limit     the maximum number of guests on the page.
+     * @return  the guests whose names come after {@code after}
+     */
+    @Timed("guestlist.usecase")
+    public List<Guest> getGuestlist(String after, int limit) {
+
+        if (this.seatingState.isPresent()) {
+            return this.seatingState.get().getGuestlist(after, limit);
+        }
+        return this.reservationRepository.findGuestsAfter(after, limit);
+    }
+
+    /**
+     * Hands every guest on the list to {@code action} in turn, without building the whole list first
+     * @param action    what to do with each guest
+     */
+    @Timed("guestlist.usecase")
+    public void forEachGuest(Consumer<Guest> action) {
+
+        if (this.seatingState.isPresent()) {
+            this.seatingState.get().getGuestlist().forEach(action);
+            return;
+        }
+        this.reservationRepository.forEachGuest(action);
     }
 
     /**
@@ -77,59 +264,249 @@ public class GuestlistService {
      * @param accompanyingNumber the number of people accompanying the guest; the entourage must fit in the table capacity.
      * @return  the guest's name
      */
+    @Timed("guestlist.usecase")
     public String checkGuestIn(String guestName, int accompanyingNumber) throws GuestListException {
 
+        val timeArrived = LocalDateTime.now();
+        if (this.seatingState.isPresent()) {
+            seatCounter.counting(() -> {
+                val reservationDB = this.seatingState.get().checkGuestIn(guestName, accompanyingNumber, timeArrived);
+                seatCounter.guestArrived(reservationDB.getTableNumber(), accompanyingNumber + 1);
+                return reservationDB;
+            });
+            changed(GuestlistEvent.arrived(ArrivedGuest.of(guestName, accompanyingNumber, timeArrived)));
+            return guestName;
+        }
+        // the table number is needed to keep the seat counter up to date
         val reservationDB = reservationRepository.findByName(guestName)
             .orElseThrow(() -> GuestListException.of(ErrorType.RESERVATION_NOT_FOUND));
-        // verify if the guest has already been checked in    
-        if(arrivedGuestRepository.findByName(guestName).isPresent()) {
-            throw GuestListException.of(ErrorType.GUEST_HAS_ALREADY_ARRIVED);
-        }
-        val tableDB = this.tableRepository.findByTableNumber(reservationDB.getTableNumber())
-            // this error is not supposed to happen if our database is in a consistent state (reservation -> table)
-            .orElseThrow(() -> GuestListException.of(ErrorType.TABLE_NOT_FOUND));
-        // the table capacity has to be at least equals to the accompanying number + the guest
-        if(tableDB.getTableCapacity() <= accompanyingNumber){
-            throw GuestListException.of(ErrorType.TABLE_CAPACITY_EXCEEDED);
-        }
-        arrivedGuestRepository.save(
-            ArrivedGuestDb.of(guestName, accompanyingNumber, LocalDateTime.now())
-        );
+        // the reservation, arrival and capacity checks are repeated atomically by the insert
+        seatCounter.counting(() -> {
+            try {
+                if (arrivedGuestRepository.checkIn(guestName, accompanyingNumber, timeArrived) == 0) {
+                    throw checkInRejection(guestName, accompanyingNumber);
+                }
+            } catch (DuplicateKeyException e) {
+                // a concurrent check-in of the same guest got there first
+                throw GuestListException.of(ErrorType.GUEST_HAS_ALREADY_ARRIVED);
+            }
+            seatCounter.guestArrived(reservationDB.getTableNumber(), accompanyingNumber + 1);
+            return guestName;
+        });
+        changed(GuestlistEvent.arrived(ArrivedGuest.of(guestName, accompanyingNumber, timeArrived)));
         return guestName;
     }
 
-   /**
+    /**
      * Retrieves the list of arrived guests
      * @return  the list of guests in the venue at the moment
      * @see     ArrivedGuest class
      */
+    @Timed("guestlist.usecase")
     public List<ArrivedGuest> getArrivedGuests() {
 
-        return StreamSupport.stream(arrivedGuestRepository.findAll().spliterator(), false)
-            .map(ArrivedGuestDb::arrival)
-            .collect(toList());
+        if (this.seatingState.isPresent()) {
+            return this.seatingState.get().getArrivedGuests();
+        }
+        return this.arrivedGuestRepository.findArrivedGuests();
+    }
+
+    /**
+     * Retrieves a page of the arrived guests, ordered by name
+     * @param after     the name of the last guest on the previous page; empty for the first page.
+     * @param limit     the maximum number of guests on the page.
+     * @return  the guests in the venue whose names come after {@code after}
+     */
+    @Timed("guestlist.usecase")
+    public List<ArrivedGuest> getArrivedGuests(String after, int limit) {
+
+        if (this.seatingState.isPresent()) {
+            return this.seatingState.get().getArrivedGuests(after, limit);
+        }
+        return this.arrivedGuestRepository.findArrivedGuestsAfter(after, limit);
+    }
+
+    /**
+     * Hands every arrived guest to {@code action} in turn, without building the whole list first
+     * @param action    what to do with each guest
+     */
+    @Timed("guestlist.usecase")
+    public void forEachArrivedGuest(Consumer<ArrivedGuest> action) {
+
+        if (this.seatingState.isPresent()) {
+            this.seatingState.get().getArrivedGuests().forEach(action);
+            return;
+        }
+        this.arrivedGuestRepository.forEachArrivedGuest(action);
     }
 
     /** 
      * Checks a guest out when they leaves with their entourage
      * @param guestName          the guest's name; the guest must have a valid reservation; the guest must be in the venue.
      */
+    @Timed("guestlist.usecase")
     public void checkGuestOut(String guestName) throws GuestListException {
 
+        if (this.seatingState.isPresent()) {
+            seatCounter.counting(() -> {
+                val arrivedGuestDB = this.seatingState.get().checkGuestOut(guestName, LocalDateTime.now());
+                this.seatingState.get().findReservation(guestName).ifPresent(reservationDB ->
+                    seatCounter.guestLeft(reservationDB.getTableNumber(), arrivedGuestDB.getAccompanyingGuests() + 1));
+                return arrivedGuestDB;
+            });
+            changed(GuestlistEvent.left(guestName));
+            return;
+        }
         // The guest must have a valid reservation
-        reservationRepository.findByName(guestName)
+        val reservationDB = reservationRepository.findByName(guestName)
             .orElseThrow(() -> GuestListException.of(ErrorType.RESERVATION_NOT_FOUND));
         val arrivedGuestDB = arrivedGuestRepository.findByName(guestName)
             .orElseThrow(() -> GuestListException.of(ErrorType.GUEST_NOT_CHECKED_IN));
-        arrivedGuestRepository.delete(arrivedGuestDB);
+        // deleting by name leaves the repository's delete events to changes made outside the use cases
+        seatCounter.counting(() -> {
+            if (arrivedGuestRepository.deleteByName(guestName) == 0) {
+                // a concurrent check-out of the same guest got there first
+                throw GuestListException.of(ErrorType.GUEST_NOT_CHECKED_IN);
+            }
+            seatCounter.guestLeft(reservationDB.getTableNumber(), arrivedGuestDB.getAccompanyingGuests() + 1);
+            return guestName;
+        });
+        changed(GuestlistEvent.left(guestName));
     }
 
-   /**
+    /**
      * Counts the current number of seats empty across all tables in the venue
      * @return  the number of seats empty at the moment 
      */
+    @Timed("guestlist.usecase")
     public int getSeatsEmpty() {
 
-        return arrivedGuestRepository.countSeatsEmpty();
+        return seatCounter.getSeatsEmpty();
+    }
+
+    /**
+     * Counts the current number of seats empty at a table
+     * @param tableNumber   the number of the table; a table with this number must exist.
+     * @return  the number of seats empty at the moment 
+     */
+    @Timed("guestlist.usecase")
+    public int getSeatsEmpty(int tableNumber) throws GuestListException {
+
+        return seatCounter.getSeatsEmpty(tableNumber)
+            .orElseThrow(() -> GuestListException.of(ErrorType.TABLE_NOT_FOUND));
+    }
+
+    /**
+     * Reports on every table: its capacity, the party booked and the part of it in the venue
+     * @return  the occupancy of every table, ordered by table number
+     */
+    @Timed("guestlist.usecase")
+    public List<TableOccupancy> getTables() {
+
+        if (this.seatingState.isPresent()) {
+            return this.seatingState.get().getTables();
+        }
+        return this.tableRepository.findOccupancy().stream()
+            .map(TableOccupancyDb::occupancy)
+            .collect(toList());
+    }
+
+    /**
+     * Reports on the tables that can still be booked for a party
+     * @param partySize the number of people in the party, the guest included.
+     * @return  the occupancy of the tables nobody has booked that can seat the party, ordered by table number
+     */
+    @Timed("guestlist.usecase")
+    public List<TableOccupancy> getTablesAvailableFor(int partySize) {
+
+        if (this.seatingState.isPresent()) {
+            return this.seatingState.get().getTablesAvailableFor(partySize);
+        }
+        return this.tableRepository.findOccupancyAvailableFor(partySize).stream()
+            .map(TableOccupancyDb::occupancy)
+            .collect(toList());
+    }
+
+    /**
+     * The sequence number of the last booking, arrival or departure made through this instance since it started.
+     * Read it before a list, so that the list is never older than the version it is served with.
+     */
+    public long getVersion() {
+        return changeLog.getLastSequence();
+    }
+
+    /**
+     * The version of the guest list: the sequence number of the last booking made through this instance since it started
+     */
+    public long getGuestlistVersion() {
+        return changeLog.getLastBookingSequence();
+    }
+
+    /**
+     * The version of the arrived guests: the sequence number of the last arrival or departure made through this instance since it started
+     */
+    public long getArrivedGuestsVersion() {
+        return changeLog.getLastAttendanceSequence();
+    }
+
+    /**
+     * Retrieves the bookings, arrivals and departures made after a version
+     * @param version   a version returned by {@link #getVersion()}, or the sequence number of a change.
+     * @return  the changes, oldest first; empty if they are no longer all kept
+     */
+    @Timed("guestlist.usecase")
+    public Optional<List<Change>> getChangesSince(long version) {
+        return changeLog.since(version);
+    }
+
+    /**
+     * Retrieves the bookings, arrivals and departures made after a time
+     * @return  the changes, oldest first; empty if they are no longer all kept
+     */
+    @Timed("guestlist.usecase")
+    public Optional<List<Change>> getChangesSince(LocalDateTime time) {
+        return changeLog.since(time);
+    }
+
+    private void changed(GuestlistEvent event) {
+        changeLog.append(event, seatCounter.getSeatsEmpty());
+        eventPublisher.publishEvent(event);
+    }
+
+    /**
+     * Works out which of the guest's name or the table a booking clashed with
+     */
+    private GuestListException bookingRejection(String guestName) {
+
+        if (reservationRepository.findByName(guestName).isPresent()) {
+            return GuestListException.of(ErrorType.GUEST_BOOKED_ALREADY);
+        }
+        return GuestListException.of(ErrorType.TABLE_NOT_AVAILABLE);
+    }
+
+    /**
+     * Works out why a conditional check-in inserted nothing.
+     * Only runs on the rejection path, so the successful check-ins pay no extra lookups.
+     */
+    private GuestListException checkInRejection(String guestName, int accompanyingNumber) {
+
+        val reservationDB = reservationRepository.findByName(guestName);
+        if (reservationDB.isEmpty()) {
+            return GuestListException.of(ErrorType.RESERVATION_NOT_FOUND);
+        }
+        if (arrivedGuestRepository.findByName(guestName).isPresent()) {
+            return GuestListException.of(ErrorType.GUEST_HAS_ALREADY_ARRIVED);
+        }
+        val tableDB = this.tableRepository.findByTableNumber(reservationDB.get().getTableNumber());
+        // this error is not supposed to happen if our database is in a consistent state (reservation -> table)
+        if (tableDB.isEmpty()) {
+            return GuestListException.of(ErrorType.TABLE_NOT_FOUND);
+        }
+        // the table capacity has to be at least equals to the accompanying number + the guest
+        if (tableDB.get().getTableCapacity() <= accompanyingNumber) {
+            return GuestListException.of(ErrorType.TABLE_CAPACITY_EXCEEDED);
+        }
+        // nothing is wrong now, so the guest must have arrived and left again in the meantime
+        return GuestListException.of(ErrorType.GUEST_HAS_ALREADY_ARRIVED);
     }
 }
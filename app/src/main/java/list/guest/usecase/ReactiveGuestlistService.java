@@ -0,0 +1,194 @@
+package list.guest.usecase;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import list.guest.adapter.persistence.ReservationDb;
+import list.guest.adapter.persistence.TableOccupancyDb;
+import list.guest.adapter.persistence.reactive.ReactiveArrivedGuestRepository;
+import list.guest.adapter.persistence.reactive.ReactiveReservationRepository;
+import list.guest.adapter.persistence.reactive.ReactiveTableRepository;
+import list.guest.dto.ArrivedGuest;
+import list.guest.dto.Guest;
+import list.guest.dto.TableOccupancy;
+import list.guest.usecase.exceptions.GuestListException;
+import list.guest.usecase.exceptions.GuestListException.ErrorType;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * The rules of {@link GuestlistService} over non-blocking repositories, for the reactive profile.
+ * Rejections are signalled as a {@link GuestListException} error rather than thrown.
+ * The in-memory seating state and the seat counter are not available here: seats are counted by the database.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveGuestlistService {
+
+    // concurrent bookings that may take the table picked for a guest before it is booked for them
+    private static final int MAX_TABLE_PICKS = 10;
+
+    private @NonNull ReactiveTableRepository tableRepository;
+    private @NonNull ReactiveReservationRepository reservationRepository;
+    private @NonNull ReactiveArrivedGuestRepository arrivedGuestRepository;
+
+    /**
+     * @see GuestlistService#bookTable
+     * @return  the guest's name
+     */
+    public Mono<String> bookTable(String guestName, int tableNumber, int accompanyingNumber) {
+
+        // the checks do not depend on each other, so their queries run concurrently
+        return Mono.zip(
+                tableRepository.findByTableNumber(tableNumber).map(Optional::of).defaultIfEmpty(Optional.empty()),
+                reservationRepository.findByName(guestName).hasElement(),
+                reservationRepository.findByTableNumber(tableNumber).hasElement())
+            .flatMap(checks -> {
+                val tableDB = checks.getT1();
+                if (tableDB.isEmpty()) {
+                    return Mono.error(GuestListException.of(ErrorType.TABLE_NOT_FOUND));
+                }
+                // Guest cannot have a table reserved
+                if (checks.getT2()) {
+                    return Mono.error(GuestListException.of(ErrorType.GUEST_BOOKED_ALREADY));
+                }
+                // The table must be available
+                if (checks.getT3()) {
+                    return Mono.error(GuestListException.of(ErrorType.TABLE_NOT_AVAILABLE));
+                }
+                // the table capacity has to be at least equals to the accompanying number + the guest
+                if (tableDB.get().getTableCapacity() <= accompanyingNumber) {
+                    return Mono.error(GuestListException.of(ErrorType.TABLE_CAPACITY_EXCEEDED));
+                }
+                return reservationRepository.save(ReservationDb.of(guestName, tableNumber, accompanyingNumber))
+                    // a concurrent booking of the same guest or table got there first
+                    .onErrorResume(DataIntegrityViolationException.class, e ->
+                        reservationRepository.findByName(guestName).hasElement()
+                            .flatMap(guestBooked -> Mono.error(GuestListException.of(
+                                guestBooked ? ErrorType.GUEST_BOOKED_ALREADY : ErrorType.TABLE_NOT_AVAILABLE))))
+                    .thenReturn(guestName);
+            });
+    }
+
+    /**
+     * @see GuestlistService#bookAnyTable
+     * @return  the number of the table booked
+     */
+    public Mono<Integer> bookAnyTable(String guestName, int accompanyingNumber) {
+
+        return Mono.defer(() -> tableRepository.findSmallestAvailableFor(accompanyingNumber + 1))
+            .switchIfEmpty(Mono.error(GuestListException.of(ErrorType.NO_TABLE_AVAILABLE)))
+            .flatMap(tableDB -> bookTable(guestName, tableDB.getTableNumber(), accompanyingNumber)
+                .thenReturn(tableDB.getTableNumber()))
+            // a concurrent booking got the table first, so pick again
+            .retryWhen(Retry.max(MAX_TABLE_PICKS)
+                .filter(e -> e instanceof GuestListException && ((GuestListException) e).getErrorType() == ErrorType.TABLE_NOT_AVAILABLE)
+                .onRetryExhaustedThrow((retrySpec, signal) -> signal.failure()));
+    }
+
+    /**
+     * @see GuestlistService#getGuestlist
+     */
+    public Flux<Guest> getGuestlist() {
+        return reservationRepository.findAllOrderedByName()
+            .map(ReservationDb::guest);
+    }
+
+    /**
+     * @see GuestlistService#checkGuestIn
+     * @return  the guest's name
+     */
+    public Mono<String> checkGuestIn(String guestName, int accompanyingNumber) {
+
+        // the reservation, arrival and capacity checks are made atomically by the insert
+        return arrivedGuestRepository.checkIn(guestName, accompanyingNumber, LocalDateTime.now())
+            // a concurrent check-in of the same guest got there first
+            .onErrorMap(DataIntegrityViolationException.class, e -> GuestListException.of(ErrorType.GUEST_HAS_ALREADY_ARRIVED))
+            .flatMap(inserted -> inserted == 0
+                ? checkInRejection(guestName, accompanyingNumber).flatMap(e -> Mono.<String>error(e))
+                : Mono.just(guestName));
+    }
+
+    /**
+     * @see GuestlistService#getArrivedGuests
+     */
+    public Flux<ArrivedGuest> getArrivedGuests() {
+        return arrivedGuestRepository.findAllOrderedByName()
+            .map(ArrivedGuestDb::arrival);
+    }
+
+    /**
+     * @see GuestlistService#checkGuestOut
+     */
+    public Mono<Void> checkGuestOut(String guestName) {
+
+        return reservationRepository.findByName(guestName)
+            .switchIfEmpty(Mono.error(GuestListException.of(ErrorType.RESERVATION_NOT_FOUND)))
+            .flatMap(reservationDB -> arrivedGuestRepository.deleteByName(guestName))
+            .flatMap(deleted -> deleted == 0
+                ? Mono.error(GuestListException.of(ErrorType.GUEST_NOT_CHECKED_IN))
+                : Mono.empty());
+    }
+
+    /**
+     * @see GuestlistService#getSeatsEmpty()
+     */
+    public Mono<Integer> getSeatsEmpty() {
+        return arrivedGuestRepository.countSeatsEmpty()
+            .map(Long::intValue);
+    }
+
+    /**
+     * @see GuestlistService#getSeatsEmpty(int)
+     */
+    public Mono<Integer> getSeatsEmpty(int tableNumber) {
+        return arrivedGuestRepository.countSeatsEmptyAt(tableNumber)
+            .map(Long::intValue)
+            .switchIfEmpty(Mono.error(GuestListException.of(ErrorType.TABLE_NOT_FOUND)));
+    }
+
+    /**
+     * @see GuestlistService#getTables
+     */
+    public Flux<TableOccupancy> getTables() {
+        return tableRepository.findOccupancy()
+            .map(TableOccupancyDb::occupancy);
+    }
+
+    /**
+     * @see GuestlistService#getTablesAvailableFor
+     */
+    public Flux<TableOccupancy> getTablesAvailableFor(int partySize) {
+        return tableRepository.findOccupancyAvailableFor(partySize)
+            .map(TableOccupancyDb::occupancy);
+    }
+
+    /**
+     * Works out why the check-in insert did nothing
+     */
+    private Mono<GuestListException> checkInRejection(String guestName, int accompanyingNumber) {
+
+        return reservationRepository.findByName(guestName)
+            .flatMap(reservationDB -> arrivedGuestRepository.findByName(guestName)
+                .map(arrivedGuestDB -> GuestListException.of(ErrorType.GUEST_HAS_ALREADY_ARRIVED))
+                .switchIfEmpty(tableRepository.findByTableNumber(reservationDB.getTableNumber())
+                    // the table capacity has to be at least equals to the accompanying number + the guest
+                    .map(tableDB -> tableDB.getTableCapacity() <= accompanyingNumber
+                        ? GuestListException.of(ErrorType.TABLE_CAPACITY_EXCEEDED)
+                        // nothing is wrong now, so the guest must have arrived and left again in the meantime
+                        : GuestListException.of(ErrorType.GUEST_HAS_ALREADY_ARRIVED))
+                    // this error is not supposed to happen if our database is in a consistent state (reservation -> table)
+                    .defaultIfEmpty(GuestListException.of(ErrorType.TABLE_NOT_FOUND))))
+            .defaultIfEmpty(GuestListException.of(ErrorType.RESERVATION_NOT_FOUND));
+    }
+}
@@ -1,10 +1,16 @@
 package list.guest.usecase.exceptions;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 
-@RequiredArgsConstructor(staticName = "of")
+/**
+ * A request turned down by the guest list rules.
+ * Rejections are an expected outcome at a busy door, so there is one shared instance per
+ * {@link ErrorType} and no stack trace is captured: where the rule lives is all it would tell.
+ */
 public class GuestListException extends Exception{
 
     public static enum ErrorType {
@@ -14,8 +20,25 @@ public class GuestListException extends Exception{
         GUEST_NOT_CHECKED_IN,
         TABLE_NOT_AVAILABLE,
         GUEST_BOOKED_ALREADY,
-        GUEST_HAS_ALREADY_ARRIVED
+        GUEST_HAS_ALREADY_ARRIVED,
+        NO_TABLE_AVAILABLE
+    }
+
+    private static final Map<ErrorType, GuestListException> INSTANCES = new EnumMap<>(ErrorType.class);
+    static {
+        for (ErrorType errorType : ErrorType.values()) {
+            INSTANCES.put(errorType, new GuestListException(errorType));
+        }
     }
 
-    private @NonNull @Getter ErrorType errorType;
-}
\ No newline at end of file
+    private final @Getter ErrorType errorType;
+
+    private GuestListException(ErrorType errorType) {
+        super(errorType.name(), null, false, false);
+        this.errorType = errorType;
+    }
+
+    public static GuestListException of(@NonNull ErrorType errorType) {
+        return INSTANCES.get(errorType);
+    }
+}
@@ -0,0 +1,11 @@
+package list.guest.usecase.exceptions;
+
+/**
+ * A change turned away because the database is too far behind to queue it; the request may be retried shortly.
+ */
+public class WriteBacklogException extends RuntimeException {
+
+    public WriteBacklogException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,412 @@
+package list.guest.usecase.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import static java.util.stream.Collectors.*;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.relational.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.relational.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import list.guest.adapter.persistence.ReservationDb;
+import list.guest.adapter.persistence.ReservationRepository;
+import list.guest.dto.Guest;
+import list.guest.dto.GuestlistEvent;
+import list.guest.usecase.seating.SeatingState;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The names of the guests booked, indexed so that the door staff can find a guest from the start of any of their
+ * names, or from a misspelling, without going through the guest list. Names are compared lower case, without accents.
+ * Matches are ranked: the name itself, then the names starting with the query, then the names with a word starting
+ * with it. When no name starts with it, the names sharing enough trigrams (runs of three characters) with it and
+ * a few typos away from it are offered instead, the fewest typos first.
+ * Bookings made through the use cases arrive as their {@link GuestlistEvent};
+ * changes made through the repositories as their events.
+ * Searches share a read lock and changes take the write lock; a lock rather than a monitor, as in {@link SeatingState},
+ * so that a virtual thread waiting for it does not hold on to its carrier thread. A load reads the guests without it.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class GuestNameIndex {
+
+    // the share of the query's trigrams a name must have to be offered as a misspelling of it
+    private static final double MIN_SIMILARITY = 0.4;
+    // the matches gathered before ranking, so that a query of one letter stays cheap
+    private static final int MAX_CANDIDATES = 250;
+    // the misspellings reranked by the typos they are away, the most similar ones
+    private static final int MAX_FUZZY_CANDIDATES = 200;
+    // the characters typed per typo a misspelling may have, though one is always allowed
+    private static final int CHARACTERS_PER_TYPO = 4;
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static enum Kind { NAME, NAME_PREFIX, WORD_PREFIX, SIMILAR }
+
+    private static class Match {
+        final Guest guest;
+        final Kind kind;
+        final int typos;
+        final double similarity;
+
+        Match(Guest guest, Kind kind, int typos, double similarity) {
+            this.guest = guest;
+            this.kind = kind;
+            this.typos = typos;
+            this.similarity = similarity;
+        }
+    }
+
+    private static final Comparator<Match> RANKING = Comparator
+        .<Match, Kind>comparing(match -> match.kind)
+        .thenComparingInt(match -> match.typos)
+        .thenComparing(match -> -match.similarity)
+        .thenComparingInt(match -> match.guest.getName().length())
+        .thenComparing(match -> match.guest.getName());
+
+    /**
+     * A growable list of guest ids
+     */
+    private static class Ids {
+        int[] ids = new int[2];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    private @NonNull ReservationRepository reservationRepository;
+    private @NonNull Optional<SeatingState> seatingState;
+
+    // the guests by id, null once removed, and the words of their names
+    private final List<Guest> guests = new ArrayList<>();
+    private final List<String[]> words = new ArrayList<>();
+    private final Map<String, Integer> idByName = new HashMap<>();
+    private int removed;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // the changes made while a load reads the guests, applied again on top of what it has read; only used under the write lock
+    private final List<Runnable> changesWhileLoading = new ArrayList<>();
+    private int loading;
+    // ids by normalised name, by each word of it and by each trigram of its words
+    private final NavigableMap<String, Ids> idsByName = new TreeMap<>();
+    private final NavigableMap<String, Ids> idsByWord = new TreeMap<>();
+    private final Map<String, Ids> idsByTrigram = new HashMap<>();
+
+    @PostConstruct
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            loading++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        val loaded = new ArrayList<Guest>();
+        boolean read = false;
+        try {
+            if (seatingState.isPresent()) {
+                seatingState.get().getGuestlist().forEach(loaded::add);
+            } else {
+                reservationRepository.forEachGuest(loaded::add);
+            }
+            read = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (read) {
+                    clear();
+                    loaded.forEach(this::index);
+                    // an add or remove is the same whether it is applied once or twice
+                    changesWhileLoading.forEach(Runnable::run);
+                }
+                if (--loading == 0) {
+                    changesWhileLoading.clear();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.debug("{} guest names indexed", loaded.size());
+    }
+
+    /**
+     * @param query     the start of any of the guest's names, or a misspelling of their name
+     * @param limit     the maximum number of guests returned
+     * @return  the guests matching, the best match first
+     */
+    public List<Guest> search(String query, int limit) {
+        val normalised = normalise(query);
+        if (normalised.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            val matches = new HashMap<Integer, Match>();
+            collect(matches, idsByName.get(normalised), Kind.NAME);
+            collect(matches, idsByName.subMap(normalised, true, normalised + Character.MAX_VALUE, false), Kind.NAME_PREFIX);
+            collect(matches, idsByWord.subMap(normalised, true, normalised + Character.MAX_VALUE, false), Kind.WORD_PREFIX);
+            // a misspelling is only looked for when nothing starts with what has been typed
+            if (matches.isEmpty()) {
+                collectSimilar(matches, normalised);
+            }
+            return matches.values().stream()
+                .sorted(RANKING)
+                .limit(limit)
+                .map(match -> match.guest)
+                .collect(toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The guest has been booked
+     */
+    public void add(Guest guest) {
+        lock.writeLock().lock();
+        try {
+            index(guest);
+            if (loading > 0) {
+                changesWhileLoading.add(() -> index(guest));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The guest's reservation has gone
+     */
+    public void remove(String guestName) {
+        lock.writeLock().lock();
+        try {
+            unindex(guestName);
+            if (loading > 0) {
+                changesWhileLoading.add(() -> unindex(guestName));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(Guest guest) {
+        if (idByName.containsKey(guest.getName())) {
+            return;
+        }
+        val id = guests.size();
+        val normalised = normalise(guest.getName());
+        val nameWords = normalised.isEmpty() ? new String[0] : normalised.split(" ");
+        guests.add(guest);
+        words.add(nameWords);
+        idByName.put(guest.getName(), id);
+        idsByName.computeIfAbsent(normalised, key -> new Ids()).add(id);
+        for (String word : new LinkedHashSet<>(Arrays.asList(nameWords))) {
+            idsByWord.computeIfAbsent(word, key -> new Ids()).add(id);
+        }
+        for (String trigram : trigrams(nameWords)) {
+            idsByTrigram.computeIfAbsent(trigram, key -> new Ids()).add(id);
+        }
+    }
+
+    private void unindex(String guestName) {
+        val id = idByName.remove(guestName);
+        if (id == null) {
+            return;
+        }
+        // the postings keep the id until the index is rebuilt, and skip it until then
+        guests.set(id, null);
+        if (++removed > idByName.size()) {
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onGuestlistEvent(GuestlistEvent event) {
+        if (event.getType() == GuestlistEvent.Type.BOOKED) {
+            event.getGuest().ifPresent(this::add);
+        }
+    }
+
+    /**
+     * Reservations added and removed straight through the repository
+     */
+    @EventListener
+    public void onAfterSave(AfterSaveEvent<?> event) {
+        if (event.getEntity() instanceof ReservationDb) {
+            add(((ReservationDb) event.getEntity()).guest());
+        }
+    }
+
+    @EventListener
+    public void onAfterDelete(AfterDeleteEvent<?> event) {
+        val entity = event.getEntity();
+        if (entity instanceof ReservationDb) {
+            remove(((ReservationDb) entity).getName());
+        } else if (entity == null && event.getType() == ReservationDb.class) {
+            // deleted by id or in bulk, so we cannot tell who is gone
+            log.debug("Reservations deleted without the entity; reloading the guest name index");
+            load();
+        }
+    }
+
+    private void collect(Map<Integer, Match> matches, Ids ids, Kind kind) {
+        if (ids == null) {
+            return;
+        }
+        for (int i = 0; i < ids.size && matches.size() < MAX_CANDIDATES; i++) {
+            val guest = guests.get(ids.ids[i]);
+            if (guest != null) {
+                matches.putIfAbsent(ids.ids[i], new Match(guest, kind, 0, 0));
+            }
+        }
+    }
+
+    private void collect(Map<Integer, Match> matches, Map<String, Ids> idsByKey, Kind kind) {
+        for (Ids ids : idsByKey.values()) {
+            if (matches.size() >= MAX_CANDIDATES) {
+                return;
+            }
+            collect(matches, ids, kind);
+        }
+    }
+
+    /**
+     * Counts the query's trigrams each name has, then reranks the names with the most by how many typos they are away
+     */
+    private void collectSimilar(Map<Integer, Match> matches, String normalised) {
+        val queryWords = normalised.split(" ");
+        val queryTrigrams = trigrams(queryWords);
+        val shared = new int[guests.size()];
+        val candidates = new Ids();
+        for (String trigram : queryTrigrams) {
+            val ids = idsByTrigram.get(trigram);
+            if (ids == null) {
+                continue;
+            }
+            for (int i = 0; i < ids.size; i++) {
+                if (shared[ids.ids[i]]++ == 0) {
+                    candidates.add(ids.ids[i]);
+                }
+            }
+        }
+        val similar = new ArrayList<Match>();
+        for (int i = 0; i < candidates.size; i++) {
+            val id = candidates.ids[i];
+            val similarity = (double) shared[id] / queryTrigrams.size();
+            if (similarity >= MIN_SIMILARITY && guests.get(id) != null && !matches.containsKey(id)) {
+                similar.add(new Match(guests.get(id), Kind.SIMILAR, 0, similarity));
+            }
+        }
+        similar.sort(Comparator.<Match>comparingDouble(match -> -match.similarity));
+        val maxTypos = Math.max(1, normalised.length() / CHARACTERS_PER_TYPO);
+        for (Match match : similar.subList(0, Math.min(similar.size(), MAX_FUZZY_CANDIDATES))) {
+            val id = idByName.get(match.guest.getName());
+            val typos = typos(queryWords, words.get(id));
+            if (typos <= maxTypos) {
+                matches.put(id, new Match(match.guest, Kind.SIMILAR, typos, match.similarity));
+            }
+        }
+    }
+
+    /**
+     * @return  the edits, a swap of two neighbouring letters included, that turn each query word into the closest name word
+     */
+    private static int typos(String[] queryWords, String[] nameWords) {
+        int typos = 0;
+        for (String queryWord : queryWords) {
+            int closest = queryWord.length();
+            for (String nameWord : nameWords) {
+                closest = Math.min(closest, distance(queryWord, nameWord));
+            }
+            typos += closest;
+        }
+        return typos;
+    }
+
+    /**
+     * Optimal string alignment distance
+     */
+    private static int distance(String a, String b) {
+        val d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                val cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    /**
+     * @return  the distinct trigrams of the words, each padded so that their starts weigh more than their ends
+     */
+    private static Set<String> trigrams(String[] words) {
+        val trigrams = new LinkedHashSet<String>();
+        for (String word : words) {
+            val padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    /**
+     * @return  the name lower case, without accents, its words separated by single spaces
+     */
+    static String normalise(String name) {
+        val withoutAccents = ACCENTS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private void rebuild() {
+        val live = guests.stream().filter(guest -> guest != null).collect(toList());
+        clear();
+        live.forEach(this::index);
+    }
+
+    private void clear() {
+        guests.clear();
+        words.clear();
+        idByName.clear();
+        idsByName.clear();
+        idsByWord.clear();
+        idsByTrigram.clear();
+        removed = 0;
+    }
+}
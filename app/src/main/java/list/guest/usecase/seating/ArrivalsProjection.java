@@ -0,0 +1,40 @@
+package list.guest.usecase.seating;
+
+import java.util.Optional;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import list.guest.adapter.persistence.ArrivedGuestRepository;
+import list.guest.adapter.persistence.AttendanceEventRepository;
+import list.guest.adapter.persistence.AttendanceSnapshotRepository;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+/**
+ * Brings the arrivals table up to date with the {@link AttendanceLog} at startup when the log is off,
+ * as the table is not written while it is on. Whatever reads the arrivals table at startup depends on it.
+ */
+@Component
+@RequiredArgsConstructor
+public class ArrivalsProjection {
+
+    private @NonNull AttendanceEventRepository attendanceEventRepository;
+    private @NonNull AttendanceSnapshotRepository attendanceSnapshotRepository;
+    private @NonNull ArrivedGuestRepository arrivedGuestRepository;
+    private @NonNull Optional<AttendanceLog> attendanceLog;
+    private @NonNull PlatformTransactionManager transactionManager;
+
+    @PostConstruct
+    public void load() {
+        if (attendanceLog.isPresent()) {
+            return;
+        }
+        val log = new AttendanceLog(attendanceEventRepository, attendanceSnapshotRepository, arrivedGuestRepository);
+        new TransactionTemplate(transactionManager).execute(status -> log.projectArrivals());
+    }
+}
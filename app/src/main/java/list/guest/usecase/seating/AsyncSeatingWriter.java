@@ -0,0 +1,76 @@
+package list.guest.usecase.seating;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import list.guest.adapter.persistence.ReservationDb;
+import lombok.NonNull;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands the writes over to a single background thread, so they reach the database
+ * in the same order they were accepted. Writes still queued are lost if the process dies.
+ */
+@Slf4j
+public class AsyncSeatingWriter implements SeatingWriter, AutoCloseable {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final SeatingWriter delegate;
+    private final ExecutorService executor;
+
+    public AsyncSeatingWriter(@NonNull SeatingWriter delegate) {
+        this.delegate = delegate;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            val thread = new Thread(runnable, "seating-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void reservationAdded(ReservationDb reservation) {
+        submit(() -> delegate.reservationAdded(reservation));
+    }
+
+    @Override
+    public void reservationsAdded(List<ReservationDb> reservations) {
+        submit(() -> delegate.reservationsAdded(reservations));
+    }
+
+    @Override
+    public void arrivalAdded(ArrivedGuestDb arrival) {
+        submit(() -> delegate.arrivalAdded(arrival));
+    }
+
+    @Override
+    public void arrivalRemoved(Departure departure) {
+        submit(() -> delegate.arrivalRemoved(departure));
+    }
+
+    /**
+     * Stops accepting writes and waits for the queued ones to reach the database
+     */
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.error("Seating writes still pending after {}s; they have been discarded", SHUTDOWN_TIMEOUT_SECONDS);
+            executor.shutdownNow();
+        }
+    }
+
+    private void submit(Runnable write) {
+        executor.execute(() -> {
+            try {
+                write.run();
+            } catch (RuntimeException e) {
+                log.error("Seating write failed; the database is out of step with the in-memory state", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,167 @@
+package list.guest.usecase.seating;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import list.guest.adapter.persistence.ArrivedGuestRepository;
+import list.guest.adapter.persistence.AttendanceEventDb;
+import list.guest.adapter.persistence.AttendanceEventRepository;
+import list.guest.adapter.persistence.AttendanceSnapshotDb;
+import list.guest.adapter.persistence.AttendanceSnapshotRepository;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The arrivals and departures as an append-only log of events: nothing in it is ever updated or deleted,
+ * so the attendance history is kept and the state can be rebuilt from it after an incident.
+ * The guests in the venue are worked out by replaying the log from the latest snapshot. Snapshots are
+ * taken from the log itself at regular intervals, so a replay only goes through the events of one interval.
+ * While the log is on, the arrivals table is not written, so that a check-in or check-out is a single append;
+ * it is rebuilt from the log by {@link #projectArrivals} once the log is off again. Whichever was written last is
+ * told by how far into the log the table is: {@link #reconcile} only brings the log up to date with the table
+ * when the table has been written since.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class AttendanceLog {
+
+    private @NonNull AttendanceEventRepository eventRepository;
+    private @NonNull AttendanceSnapshotRepository snapshotRepository;
+    private @NonNull ArrivedGuestRepository arrivedGuestRepository;
+
+    public void arrived(ArrivedGuestDb arrival) {
+        eventRepository.save(AttendanceEventDb.arrived(arrival));
+    }
+
+    public void left(String guestName, LocalDateTime timeLeft) {
+        eventRepository.save(AttendanceEventDb.left(guestName, timeLeft));
+    }
+
+    /**
+     * Appends to the log what the arrivals table has seen and the log has not, i.e. the arrivals and departures
+     * made while the log was turned off: departures, timed when they are noticed, then arrivals.
+     * Nothing is done when the log is ahead of the table, i.e. the log was on last and the table is out of date.
+     */
+    public void reconcile() {
+        val projection = project();
+        if (arrivedGuestRepository.findProjectedEventId() < projection.lastEventId) {
+            return;
+        }
+        val logged = projection.arrivals;
+        val present = new TreeMap<String, ArrivedGuestDb>();
+        arrivedGuestRepository.findAll().forEach(arrival -> present.put(arrival.getName(), arrival));
+
+        val now = LocalDateTime.now();
+        val events = new ArrayList<AttendanceEventDb>();
+        int departures = 0;
+        for (val arrival : logged.values()) {
+            if (!sameArrival(arrival, present.get(arrival.getName()))) {
+                events.add(AttendanceEventDb.left(arrival.getName(), now));
+                departures++;
+            }
+        }
+        for (val arrival : present.values()) {
+            if (!sameArrival(logged.get(arrival.getName()), arrival)) {
+                events.add(AttendanceEventDb.arrived(arrival.getTimeArrived() == null
+                    ? ArrivedGuestDb.of(arrival.getName(), arrival.getAccompanyingGuests(), now)
+                    : arrival));
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        long lastEventId = projection.lastEventId;
+        for (val event : eventRepository.saveAll(events)) {
+            lastEventId = Math.max(lastEventId, event.getId());
+        }
+        arrivedGuestRepository.saveProjectedEventId(lastEventId);
+        log.warn("Attendance log behind the arrivals table; appended {} departures and {} arrivals",
+            departures, events.size() - departures);
+    }
+
+    /**
+     * Rebuilds the arrivals table from the log if the log is ahead of it, for when the log has been turned off again.
+     * Not to be run while the log is on, as it would tell {@link #reconcile} that the table has been written since.
+     * @return  whether the table has been rebuilt
+     */
+    public boolean projectArrivals() {
+        val projection = project();
+        if (arrivedGuestRepository.findProjectedEventId() >= projection.lastEventId) {
+            return false;
+        }
+        arrivedGuestRepository.deleteAllArrivals();
+        arrivedGuestRepository.insertAll(new ArrayList<>(projection.arrivals.values()));
+        arrivedGuestRepository.saveProjectedEventId(projection.lastEventId);
+        log.warn("Arrivals table behind the attendance log; rebuilt up to event {} with {} guests in the venue",
+            projection.lastEventId, projection.arrivals.size());
+        return true;
+    }
+
+    /**
+     * @return  the guests in the venue after the last event appended
+     */
+    public Collection<ArrivedGuestDb> replay() {
+        return project().arrivals.values();
+    }
+
+    /**
+     * Saves the guests in the venue as of the last event, unless no event has been appended since the latest snapshot
+     */
+    @Scheduled(
+        initialDelayString = "${guestlist.attendance.snapshot-interval:60000}",
+        fixedDelayString = "${guestlist.attendance.snapshot-interval:60000}")
+    public void snapshot() {
+        val projection = project();
+        if (projection.eventsReplayed == 0) {
+            return;
+        }
+        snapshotRepository.saveSnapshot(
+            AttendanceSnapshotDb.of(projection.lastEventId, LocalDateTime.now()),
+            projection.arrivals.values());
+        log.info("Attendance snapshot taken at event {}: {} guests in the venue", projection.lastEventId, projection.arrivals.size());
+    }
+
+    private Projection project() {
+        val projection = new Projection();
+        snapshotRepository.findLatest().ifPresent(snapshot -> {
+            projection.lastEventId = snapshot.getLastEventId();
+            snapshotRepository.findGuests(snapshot.getId())
+                .forEach(arrival -> projection.arrivals.put(arrival.getName(), arrival));
+        });
+        for (val event : eventRepository.findAfter(projection.lastEventId)) {
+            switch (event.getType()) {
+                case ARRIVED:
+                    projection.arrivals.put(event.getName(), ArrivedGuestDb.of(event.getName(), event.getAccompanyingGuests(), event.getEventTime()));
+                    break;
+                case LEFT:
+                    projection.arrivals.remove(event.getName());
+                    break;
+            }
+            projection.lastEventId = event.getId();
+            projection.eventsReplayed++;
+        }
+        return projection;
+    }
+
+    private static boolean sameArrival(ArrivedGuestDb logged, ArrivedGuestDb present) {
+        return logged != null && present != null
+            && logged.getAccompanyingGuests().equals(present.getAccompanyingGuests())
+            // arrivals the table has no time for were logged with the time they were first noticed
+            && (present.getTimeArrived() == null || Objects.equals(logged.getTimeArrived(), present.getTimeArrived()));
+    }
+
+    private static class Projection {
+        private final Map<String, ArrivedGuestDb> arrivals = new TreeMap<>();
+        private long lastEventId;
+        private int eventsReplayed;
+    }
+}
@@ -0,0 +1,54 @@
+package list.guest.usecase.seating;
+
+import java.util.List;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import list.guest.adapter.persistence.ReservationDb;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Appends the arrivals and departures to the {@link AttendanceLog}, and only there: the arrivals table is rebuilt
+ * from the log once the mode is turned off again, see {@link ArrivalsProjection}. Reservations are written as before.
+ */
+@RequiredArgsConstructor
+public class AttendanceLogSeatingWriter implements SeatingWriter {
+
+    private @NonNull SeatingWriter tableWriter;
+    private @NonNull AttendanceLog attendanceLog;
+    private @NonNull TransactionTemplate transactionTemplate;
+
+    @Override
+    public void reservationAdded(ReservationDb reservation) {
+        tableWriter.reservationAdded(reservation);
+    }
+
+    @Override
+    public void reservationsAdded(List<ReservationDb> reservations) {
+        tableWriter.reservationsAdded(reservations);
+    }
+
+    @Override
+    public void arrivalAdded(ArrivedGuestDb arrival) {
+        attendanceLog.arrived(arrival);
+    }
+
+    @Override
+    public void arrivalRemoved(Departure departure) {
+        attendanceLog.left(departure.getArrival().getName(), departure.getTimeLeft());
+    }
+
+    @Override
+    public void arrivalsAdded(List<ArrivedGuestDb> arrivals) {
+        // all or none of the batch
+        transactionTemplate.executeWithoutResult(status -> arrivals.forEach(attendanceLog::arrived));
+    }
+
+    @Override
+    public void arrivalsRemoved(List<Departure> departures) {
+        transactionTemplate.executeWithoutResult(status ->
+            departures.forEach(departure -> attendanceLog.left(departure.getArrival().getName(), departure.getTimeLeft())));
+    }
+}
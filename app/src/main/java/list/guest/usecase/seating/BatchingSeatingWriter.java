@@ -0,0 +1,236 @@
+package list.guest.usecase.seating;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import list.guest.adapter.persistence.ReservationDb;
+import list.guest.usecase.exceptions.WriteBacklogException;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Group commit: queues the writes and has a single background thread write them in batches, each in one
+ * transaction, so that a burst of arrivals costs one commit rather than one per guest.
+ * A batch is written once it holds {@code maxBatchSize} writes or {@code maxDelay} after its first one was taken,
+ * and its writes reach the database in the order they were accepted, runs of the same kind as JDBC batches.
+ * <p>
+ * A write is acknowledged once queued, so the writes queued or in the batch being written are lost if the process dies;
+ * on shutdown the queue is drained first. When the queue is full, callers wait up to {@code enqueueTimeout} for room
+ * and are then turned away with a {@link WriteBacklogException}. A batch that fails is retried one write at a time.
+ */
+@Slf4j
+public class BatchingSeatingWriter implements SeatingWriter, AutoCloseable {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private static enum Kind { RESERVATIONS_ADDED, ARRIVALS_ADDED, ARRIVALS_REMOVED, STOP }
+
+    @RequiredArgsConstructor
+    private static class Write {
+        final Kind kind;
+        final List<?> entities;
+    }
+
+    private static final Write STOP = new Write(Kind.STOP, List.of());
+
+    private final SeatingWriter delegate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Write> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long enqueueTimeoutMillis;
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    /**
+     * @param delegate          writes each run of the batch, within the batch transaction
+     * @param queueCapacity     how many writes may wait to be written
+     * @param maxBatchSize      how many writes go into one transaction at most
+     * @param maxDelay          how long (ms) a batch waits for more writes at most
+     * @param enqueueTimeout    how long (ms) a write waits for room in the queue before being turned away
+     */
+    public BatchingSeatingWriter(
+            @NonNull SeatingWriter delegate,
+            @NonNull TransactionTemplate transactionTemplate,
+            int queueCapacity,
+            int maxBatchSize,
+            long maxDelay,
+            long enqueueTimeout) {
+
+        this.delegate = delegate;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelay);
+        this.enqueueTimeoutMillis = enqueueTimeout;
+        this.flusher = new Thread(this::run, "seating-writer");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    public void reservationAdded(ReservationDb reservation) {
+        enqueue(Kind.RESERVATIONS_ADDED, List.of(reservation));
+    }
+
+    @Override
+    public void reservationsAdded(List<ReservationDb> reservations) {
+        enqueue(Kind.RESERVATIONS_ADDED, reservations);
+    }
+
+    @Override
+    public void arrivalAdded(ArrivedGuestDb arrival) {
+        enqueue(Kind.ARRIVALS_ADDED, List.of(arrival));
+    }
+
+    @Override
+    public void arrivalsAdded(List<ArrivedGuestDb> arrivals) {
+        enqueue(Kind.ARRIVALS_ADDED, arrivals);
+    }
+
+    @Override
+    public void arrivalRemoved(Departure departure) {
+        enqueue(Kind.ARRIVALS_REMOVED, List.of(departure));
+    }
+
+    @Override
+    public void arrivalsRemoved(List<Departure> departures) {
+        enqueue(Kind.ARRIVALS_REMOVED, departures);
+    }
+
+    /**
+     * @return  the number of writes waiting to be written
+     */
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting writes and waits for the queued ones to reach the database
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        if (queue.offer(STOP, SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            flusher.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        }
+        if (flusher.isAlive()) {
+            log.error("Seating writes still pending after {}s; they have been discarded", SHUTDOWN_TIMEOUT_SECONDS);
+            flusher.interrupt();
+        }
+    }
+
+    private void enqueue(Kind kind, List<?> entities) {
+        if (closed) {
+            throw new WriteBacklogException("The seating writer has been closed");
+        }
+        try {
+            if (!queue.offer(new Write(kind, entities), enqueueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new WriteBacklogException("The seating writes queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WriteBacklogException("Interrupted while waiting for room in the seating writes queue");
+        }
+    }
+
+    private void run() {
+        val batch = new ArrayList<Write>(maxBatchSize);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                stopping = collect(batch);
+            } catch (InterruptedException e) {
+                log.error("Seating writer interrupted; {} writes have been discarded", batch.size() + queue.size());
+                return;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Waits for a write, then for more until the batch is full or its window has passed
+     * @return  whether the writer has been closed, in which case the batch holds all the writes left
+     */
+    private boolean collect(List<Write> batch) throws InterruptedException {
+        batch.add(queue.take());
+        val deadline = System.nanoTime() + maxDelayNanos;
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        while (batch.size() < maxBatchSize && batch.get(batch.size() - 1) != STOP) {
+            val write = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (write == null) {
+                break;
+            }
+            batch.add(write);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+        if (!batch.remove(STOP)) {
+            return false;
+        }
+        // writes accepted while the writer was being closed
+        queue.drainTo(batch);
+        return true;
+    }
+
+    private void write(List<Write> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> runs(batch).forEach(this::apply));
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} seating writes failed; writing them one at a time", batch.size(), e);
+            for (Write write : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apply(write));
+                } catch (RuntimeException writeFailure) {
+                    log.error("Seating write failed; the database is out of step with the in-memory state", writeFailure);
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges the consecutive writes of the same kind, keeping their order
+     */
+    private static List<Write> runs(List<Write> batch) {
+        val runs = new ArrayList<Write>();
+        Kind kind = null;
+        List<Object> entities = null;
+        for (Write write : batch) {
+            if (write.kind != kind) {
+                kind = write.kind;
+                entities = new ArrayList<>();
+                runs.add(new Write(kind, entities));
+            }
+            entities.addAll(write.entities);
+        }
+        return runs;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void apply(Write write) {
+        switch (write.kind) {
+            case RESERVATIONS_ADDED:
+                delegate.reservationsAdded((List<ReservationDb>) write.entities);
+                break;
+            case ARRIVALS_ADDED:
+                delegate.arrivalsAdded((List<ArrivedGuestDb>) write.entities);
+                break;
+            case ARRIVALS_REMOVED:
+                delegate.arrivalsRemoved((List<Departure>) write.entities);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected write " + write.kind);
+        }
+    }
+}
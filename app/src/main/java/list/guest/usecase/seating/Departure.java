@@ -0,0 +1,17 @@
+package list.guest.usecase.seating;
+
+import java.time.LocalDateTime;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * A guest leaving the venue: their arrival, and when they left, which may be well before the write reaches the database
+ */
+@Data @AllArgsConstructor(staticName = "of")
+public class Departure {
+    private @NonNull ArrivedGuestDb arrival;
+    private @NonNull LocalDateTime timeLeft;
+}
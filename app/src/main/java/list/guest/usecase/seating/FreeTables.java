@@ -0,0 +1,156 @@
+package list.guest.usecase.seating;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import static java.util.stream.Collectors.*;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.relational.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.relational.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import list.guest.adapter.persistence.ReservationDb;
+import list.guest.adapter.persistence.TableDb;
+import list.guest.adapter.persistence.TableOccupancyDb;
+import list.guest.adapter.persistence.TableRepository;
+import list.guest.dto.TableOccupancy;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The tables nobody has booked, bucketed by capacity, so that the smallest one that fits a party
+ * is found in O(log n). Bookings made through the use cases are reported straight away;
+ * changes made through the repositories arrive as their events.
+ * The index may briefly offer a table that has just been booked, but never one twice:
+ * {@link #take} removes the table it returns, and the booking rules have the final say.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class FreeTables {
+
+    private @NonNull TableRepository tableRepository;
+    private @NonNull Optional<SeatingState> seatingState;
+
+    // every table in the venue, booked or not
+    private final Map<Integer, Integer> capacityByTable = new HashMap<>();
+    // table numbers of the free tables by capacity, the lowest number first
+    private final NavigableMap<Integer, NavigableSet<Integer>> freeByCapacity = new TreeMap<>();
+
+    @PostConstruct
+    public synchronized void load() {
+        capacityByTable.clear();
+        freeByCapacity.clear();
+        for (val table : tables()) {
+            capacityByTable.put(table.getTableNumber(), table.getTableCapacity());
+            if (table.getReservedPartySize() == 0) {
+                free(table.getTableNumber());
+            }
+        }
+    }
+
+    /**
+     * Removes the smallest free table that can seat the party from the index
+     * @param partySize the number of people in the party, the guest included.
+     * @return  the number of the table, if there is one; ties go to the lowest table number
+     */
+    public synchronized Optional<Integer> take(int partySize) {
+        val bucket = freeByCapacity.ceilingEntry(partySize);
+        if (bucket == null) {
+            return Optional.empty();
+        }
+        val tableNumber = bucket.getValue().pollFirst();
+        if (bucket.getValue().isEmpty()) {
+            freeByCapacity.remove(bucket.getKey());
+        }
+        return Optional.of(tableNumber);
+    }
+
+    /**
+     * The table has been booked; it is no longer offered
+     */
+    public synchronized void booked(int tableNumber) {
+        val capacity = capacityByTable.get(tableNumber);
+        if (capacity == null) {
+            return;
+        }
+        val bucket = freeByCapacity.get(capacity);
+        if (bucket != null && bucket.remove(tableNumber) && bucket.isEmpty()) {
+            freeByCapacity.remove(capacity);
+        }
+    }
+
+    /**
+     * The table is free again, e.g. a table taken for a booking that has then been turned down
+     */
+    public synchronized void released(int tableNumber) {
+        if (capacityByTable.containsKey(tableNumber)) {
+            free(tableNumber);
+        }
+    }
+
+    /**
+     * Tables and reservations are added and removed straight through the repositories
+     */
+    @EventListener
+    public synchronized void onAfterSave(AfterSaveEvent<?> event) {
+        val entity = event.getEntity();
+        if (entity instanceof TableDb) {
+            val tableDB = (TableDb) entity;
+            val booked = capacityByTable.containsKey(tableDB.getTableNumber()) && !isFree(tableDB.getTableNumber());
+            booked(tableDB.getTableNumber());
+            capacityByTable.put(tableDB.getTableNumber(), tableDB.getTableCapacity());
+            if (!booked) {
+                free(tableDB.getTableNumber());
+            }
+        } else if (entity instanceof ReservationDb) {
+            booked(((ReservationDb) entity).getTableNumber());
+        }
+    }
+
+    @EventListener
+    public synchronized void onAfterDelete(AfterDeleteEvent<?> event) {
+        val entity = event.getEntity();
+        if (entity instanceof TableDb) {
+            val tableNumber = ((TableDb) entity).getTableNumber();
+            booked(tableNumber);
+            capacityByTable.remove(tableNumber);
+        } else if (entity instanceof ReservationDb) {
+            released(((ReservationDb) entity).getTableNumber());
+        } else if (entity == null) {
+            // deleted by id or in bulk, so we cannot tell what is gone
+            log.debug("{} deleted without the entity; reloading the free tables", event.getType().getSimpleName());
+            load();
+        }
+    }
+
+    private boolean isFree(int tableNumber) {
+        val bucket = freeByCapacity.get(capacityByTable.get(tableNumber));
+        return bucket != null && bucket.contains(tableNumber);
+    }
+
+    private void free(int tableNumber) {
+        freeByCapacity.computeIfAbsent(capacityByTable.get(tableNumber), capacity -> new TreeSet<>()).add(tableNumber);
+    }
+
+    private List<TableOccupancy> tables() {
+        if (seatingState.isPresent()) {
+            return seatingState.get().getTables();
+        }
+        return tableRepository.findOccupancy().stream()
+            .map(TableOccupancyDb::occupancy)
+            .collect(toList());
+    }
+}
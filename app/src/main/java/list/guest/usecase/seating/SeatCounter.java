@@ -0,0 +1,186 @@
+package list.guest.usecase.seating;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import static java.util.stream.Collectors.*;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.relational.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.relational.core.mapping.event.AfterSaveEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import list.guest.adapter.persistence.ArrivedGuestRepository;
+import list.guest.adapter.persistence.TableDb;
+import list.guest.adapter.persistence.TableSeatsDb;
+import list.guest.usecase.exceptions.GuestListException;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Number of seats empty, in total and per table, and of people in the venue, kept up to date as guests come and go
+ * so that it can be read without querying the database.
+ * It is periodically recounted from the source of truth (the in-memory seating state when enabled,
+ * the database otherwise) and any drift is reported and repaired.
+ * Arrivals and departures are written and counted as one step, see {@link #counting}, so a recount never sees
+ * a change that is not counted yet, and any drift it finds is real.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@DependsOn("arrivalsProjection")
+@RequiredArgsConstructor
+public class SeatCounter {
+
+    private @NonNull ArrivedGuestRepository arrivedGuestRepository;
+    private @NonNull Optional<SeatingState> seatingState;
+
+    private final Map<Integer, Integer> seatsEmptyByTable = new HashMap<>();
+    private volatile int seatsEmpty;
+    private volatile int guestsPresent;
+    // changes share it while they are written and counted; a recount takes it on its own
+    private final ReentrantReadWriteLock changes = new ReentrantReadWriteLock();
+
+    @FunctionalInterface
+    public interface Change<T> {
+        T make() throws GuestListException;
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        apply(count(), countGuestsPresent());
+    }
+
+    /**
+     * @return  the number of seats empty across all tables in the venue
+     */
+    public int getSeatsEmpty() {
+        return seatsEmpty;
+    }
+
+    /**
+     * @return  the number of people in the venue, guests and their entourages
+     */
+    public int getGuestsPresent() {
+        return guestsPresent;
+    }
+
+    /**
+     * @return  the number of seats empty at the table, if it exists
+     */
+    public synchronized Optional<Integer> getSeatsEmpty(int tableNumber) {
+        return Optional.ofNullable(seatsEmptyByTable.get(tableNumber));
+    }
+
+    /**
+     * Makes a change that brings guests in or takes them out, together with its
+     * {@link #guestArrived}/{@link #guestLeft}, so that no recount can run in between
+     * @param change    writes the change and counts it
+     * @return  what the change returns
+     */
+    public <T> T counting(Change<T> change) throws GuestListException {
+        changes.readLock().lock();
+        try {
+            return change.make();
+        } finally {
+            changes.readLock().unlock();
+        }
+    }
+
+    public synchronized void guestArrived(int tableNumber, int partySize) {
+        update(tableNumber, -partySize);
+    }
+
+    public synchronized void guestLeft(int tableNumber, int partySize) {
+        update(tableNumber, partySize);
+    }
+
+    /**
+     * Recounts the seats empty and repairs the counter if it has drifted
+     * @return  the drift found, i.e. counted minus recounted seats
+     */
+    @Scheduled(
+        initialDelayString = "${guestlist.seats.reconcile-interval:60000}",
+        fixedDelayString = "${guestlist.seats.reconcile-interval:60000}")
+    public int reconcile() {
+        val drift = recount();
+        if (drift != 0) {
+            log.warn("Seats empty counter was off by {}; repaired", drift);
+        }
+        return drift;
+    }
+
+    /**
+     * Tables are only ever changed straight through the repository
+     */
+    @EventListener
+    public void onAfterSave(AfterSaveEvent<?> event) {
+        if (event.getEntity() instanceof TableDb) {
+            recount();
+        }
+    }
+
+    /**
+     * The use cases never delete through {@code CrudRepository.delete}, so this is a change made behind their back
+     */
+    @EventListener
+    public void onAfterDelete(AfterDeleteEvent<?> event) {
+        recount();
+    }
+
+    private int recount() {
+        if (changes.getReadHoldCount() > 0) {
+            // a change made from within a counted one; waiting for the changes to finish would wait for ourselves
+            log.debug("Seats changed while being counted; recount left to the next reconcile");
+            return 0;
+        }
+        changes.writeLock().lock();
+        try {
+            val recount = count();
+            val guestsPresentRecount = countGuestsPresent();
+            synchronized (this) {
+                val drift = seatsEmpty - recount.values().stream().mapToInt(Integer::intValue).sum();
+                apply(recount, guestsPresentRecount);
+                return drift;
+            }
+        } finally {
+            changes.writeLock().unlock();
+        }
+    }
+
+    private void update(int tableNumber, int seats) {
+        seatsEmptyByTable.computeIfPresent(tableNumber, (table, seatsEmpty) -> seatsEmpty + seats);
+        seatsEmpty += seats;
+        guestsPresent -= seats;
+    }
+
+    private void apply(Map<Integer, Integer> recount, int guestsPresentRecount) {
+        seatsEmptyByTable.clear();
+        seatsEmptyByTable.putAll(recount);
+        seatsEmpty = recount.values().stream().mapToInt(Integer::intValue).sum();
+        guestsPresent = guestsPresentRecount;
+    }
+
+    private Map<Integer, Integer> count() {
+        if (seatingState.isPresent()) {
+            return seatingState.get().getSeatsEmptyByTable();
+        }
+        return arrivedGuestRepository.countSeatsEmptyByTable().stream()
+            .collect(toMap(TableSeatsDb::getTableNumber, TableSeatsDb::getSeatsEmpty));
+    }
+
+    private int countGuestsPresent() {
+        if (seatingState.isPresent()) {
+            return seatingState.get().getGuestsPresent();
+        }
+        return arrivedGuestRepository.countGuestsPresent();
+    }
+}
@@ -0,0 +1,393 @@
+package list.guest.usecase.seating;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import static java.util.stream.Collectors.*;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.relational.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.relational.core.mapping.event.AfterSaveEvent;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import list.guest.adapter.persistence.ReservationDb;
+import list.guest.adapter.persistence.ReservationRepository;
+import list.guest.adapter.persistence.TableDb;
+import list.guest.adapter.persistence.TableRepository;
+import list.guest.dto.ArrivedGuest;
+import list.guest.dto.BookingResult;
+import list.guest.dto.Guest;
+import list.guest.dto.TableOccupancy;
+import list.guest.usecase.exceptions.GuestListException;
+import list.guest.usecase.exceptions.GuestListException.ErrorType;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory copy of the venue seating: tables, reservations and arrivals indexed by
+ * table number and guest name. It is loaded once at startup, answers every check from
+ * memory and passes the accepted changes on to a {@link SeatingWriter}.
+ * The methods hold a lock so that a check and the change depending on it cannot interleave
+ * with another request. It is a lock rather than a monitor because synchronous writes are made while it is held,
+ * and a virtual thread blocked inside a monitor would keep its carrier thread from running any other.
+ * Reservations and arrivals must only be created through this instance.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SeatingState {
+
+    private @NonNull TableRepository tableRepository;
+    private @NonNull ReservationRepository reservationRepository;
+    // the arrivals table, or the attendance log replayed when it is on
+    private @NonNull Supplier<? extends Iterable<ArrivedGuestDb>> arrivals;
+    private @NonNull SeatingWriter seatingWriter;
+
+    private final Map<Integer, TableDb> tablesByNumber = new HashMap<>();
+    private final NavigableMap<String, ReservationDb> reservationsByName = new TreeMap<>();
+    private final Map<Integer, ReservationDb> reservationsByTable = new HashMap<>();
+    private final NavigableMap<String, ArrivedGuestDb> arrivalsByName = new TreeMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * (Re)loads the tables, reservations and arrivals from the database
+     */
+    public void load() {
+        lock.lock();
+        try {
+            tablesByNumber.clear();
+            reservationsByName.clear();
+            reservationsByTable.clear();
+            arrivalsByName.clear();
+            tableRepository.findAll().forEach(table -> tablesByNumber.put(table.getTableNumber(), table));
+            reservationRepository.findAll().forEach(this::index);
+            arrivals.get().forEach(arrival -> arrivalsByName.put(arrival.getName(), arrival));
+            log.info("Seating state loaded: {} tables, {} reservations, {} arrivals",
+                tablesByNumber.size(), reservationsByName.size(), arrivalsByName.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Keeps up with tables saved straight through the repository, e.g. when the venue layout changes
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE) // ahead of the SeatCounter, which recounts from this state
+    public void onAfterSave(AfterSaveEvent<?> event) {
+        lock.lock();
+        try {
+            if (event.getEntity() instanceof TableDb) {
+                val tableDB = (TableDb) event.getEntity();
+                tablesByNumber.put(tableDB.getTableNumber(), tableDB);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Keeps up with entities deleted straight through the repository.
+     * This instance never deletes that way, so these are always changes made behind its back.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onAfterDelete(AfterDeleteEvent<?> event) {
+        lock.lock();
+        try {
+            val entity = event.getEntity();
+            if (entity instanceof TableDb) {
+                tablesByNumber.remove(((TableDb) entity).getTableNumber());
+            } else if (entity instanceof ReservationDb) {
+                unindex((ReservationDb) entity);
+            } else if (entity instanceof ArrivedGuestDb) {
+                arrivalsByName.remove(((ArrivedGuestDb) entity).getName());
+            } else if (entity == null) {
+                // deleted by id or in bulk, so we cannot tell what is gone
+                log.warn("{} deleted without the entity; reloading the seating state", event.getType().getSimpleName());
+                load();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the same rules as {@code GuestlistService.bookTable}
+     * @return  the reservation created
+     */
+    public ReservationDb bookTable(String guestName, int tableNumber, int accompanyingNumber) throws GuestListException {
+
+        lock.lock();
+        try {
+            val errorType = bookingRejection(guestName, tableNumber, accompanyingNumber);
+            if (errorType.isPresent()) {
+                throw GuestListException.of(errorType.get());
+            }
+            val reservationDB = ReservationDb.of(guestName, tableNumber, accompanyingNumber);
+            // write first so that a failed synchronous write leaves the state untouched
+            seatingWriter.reservationAdded(reservationDB);
+            index(reservationDB);
+            return reservationDB;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the same rules as {@code GuestlistService.bookTables}, writing the accepted bookings in one go
+     * @return  the outcome of each booking, in the same order
+     */
+    public List<BookingResult> bookTables(List<Guest> bookings) {
+
+        lock.lock();
+        try {
+            val results = new ArrayList<BookingResult>(bookings.size());
+            val reservations = new ArrayList<ReservationDb>();
+            for (val booking : bookings) {
+                val errorType = bookingRejection(booking.getName(), booking.getTableNumber(), booking.getAccompanyingGuests());
+                if (errorType.isPresent()) {
+                    results.add(BookingResult.rejected(booking.getName(), errorType.get()));
+                } else {
+                    // indexed straight away so that the rest of the batch sees it
+                    val reservationDB = ReservationDb.of(booking.getName(), booking.getTableNumber(), booking.getAccompanyingGuests());
+                    index(reservationDB);
+                    reservations.add(reservationDB);
+                    results.add(BookingResult.booked(booking.getName()));
+                }
+            }
+            try {
+                seatingWriter.reservationsAdded(reservations);
+            } catch (RuntimeException e) {
+                reservations.forEach(this::unindex);
+                throw e;
+            }
+            return results;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the same rules as {@code GuestlistService.checkGuestIn}
+     * @param timeArrived   when the guest arrived
+     * @return  the guest's reservation
+     */
+    public ReservationDb checkGuestIn(String guestName, int accompanyingNumber, LocalDateTime timeArrived) throws GuestListException {
+
+        lock.lock();
+        try {
+            val reservationDB = Optional.ofNullable(reservationsByName.get(guestName))
+                .orElseThrow(() -> GuestListException.of(ErrorType.RESERVATION_NOT_FOUND));
+            if (arrivalsByName.containsKey(guestName)) {
+                throw GuestListException.of(ErrorType.GUEST_HAS_ALREADY_ARRIVED);
+            }
+            val tableDB = Optional.ofNullable(tablesByNumber.get(reservationDB.getTableNumber()))
+                .orElseThrow(() -> GuestListException.of(ErrorType.TABLE_NOT_FOUND));
+            if (tableDB.getTableCapacity() <= accompanyingNumber) {
+                throw GuestListException.of(ErrorType.TABLE_CAPACITY_EXCEEDED);
+            }
+            val arrivedGuestDB = ArrivedGuestDb.of(guestName, accompanyingNumber, timeArrived);
+            seatingWriter.arrivalAdded(arrivedGuestDB);
+            arrivalsByName.put(guestName, arrivedGuestDB);
+            return reservationDB;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the same rules as {@code GuestlistService.checkGuestOut}
+     * @param timeLeft  when the guest left
+     * @return  the arrival removed
+     */
+    public ArrivedGuestDb checkGuestOut(String guestName, LocalDateTime timeLeft) throws GuestListException {
+
+        lock.lock();
+        try {
+            if (!reservationsByName.containsKey(guestName)) {
+                throw GuestListException.of(ErrorType.RESERVATION_NOT_FOUND);
+            }
+            val arrivedGuestDB = Optional.ofNullable(arrivalsByName.get(guestName))
+                .orElseThrow(() -> GuestListException.of(ErrorType.GUEST_NOT_CHECKED_IN));
+            seatingWriter.arrivalRemoved(Departure.of(arrivedGuestDB, timeLeft));
+            arrivalsByName.remove(guestName);
+            return arrivedGuestDB;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Guest> getGuestlist() {
+        lock.lock();
+        try {
+            return reservationsByName.values().stream()
+                .map(ReservationDb::guest)
+                .collect(toList());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<ArrivedGuest> getArrivedGuests() {
+        lock.lock();
+        try {
+            return arrivalsByName.values().stream()
+                .map(ArrivedGuestDb::arrival)
+                .collect(toList());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Guest> getGuestlist(String after, int limit) {
+        lock.lock();
+        try {
+            return reservationsByName.tailMap(after, false).values().stream()
+                .limit(limit)
+                .map(ReservationDb::guest)
+                .collect(toList());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<ArrivedGuest> getArrivedGuests(String after, int limit) {
+        lock.lock();
+        try {
+            return arrivalsByName.tailMap(after, false).values().stream()
+                .limit(limit)
+                .map(ArrivedGuestDb::arrival)
+                .collect(toList());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<ReservationDb> findReservation(String guestName) {
+        lock.lock();
+        try {
+            return Optional.ofNullable(reservationsByName.get(guestName));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mirrors {@code ArrivedGuestRepository.countSeatsEmptyByTable}
+     * @return  the number of seats empty keyed by table number
+     */
+    public Map<Integer, Integer> getSeatsEmptyByTable() {
+        lock.lock();
+        try {
+            val seatsEmptyByTable = new HashMap<Integer, Integer>();
+            for (val tableDB : tablesByNumber.values()) {
+                val reservationDB = reservationsByTable.get(tableDB.getTableNumber());
+                val arrivedGuestDB = reservationDB == null ? null : arrivalsByName.get(reservationDB.getName());
+                seatsEmptyByTable.put(
+                    tableDB.getTableNumber(),
+                    tableDB.getTableCapacity() - (arrivedGuestDB == null ? 0 : arrivedGuestDB.getAccompanyingGuests() + 1));
+            }
+            return seatsEmptyByTable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mirrors {@code TableRepository.findOccupancy}
+     * @return  the occupancy of every table, ordered by table number
+     */
+    public List<TableOccupancy> getTables() {
+        lock.lock();
+        try {
+            return tablesByNumber.values().stream()
+                .sorted(Comparator.comparing(TableDb::getTableNumber))
+                .map(this::occupancy)
+                .collect(toList());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mirrors {@code TableRepository.findOccupancyAvailableFor}
+     * @return  the occupancy of the tables nobody has booked that can seat {@code partySize} people, ordered by table number
+     */
+    public List<TableOccupancy> getTablesAvailableFor(int partySize) {
+        lock.lock();
+        try {
+            return tablesByNumber.values().stream()
+                .filter(tableDB -> !reservationsByTable.containsKey(tableDB.getTableNumber()) && tableDB.getTableCapacity() >= partySize)
+                .sorted(Comparator.comparing(TableDb::getTableNumber))
+                .map(this::occupancy)
+                .collect(toList());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mirrors {@code ArrivedGuestRepository.countGuestsPresent}
+     * @return  the number of people in the venue, guests and their entourages
+     */
+    public int getGuestsPresent() {
+        lock.lock();
+        try {
+            return arrivalsByName.values().stream()
+                .mapToInt(arrivedGuestDB -> arrivedGuestDB.getAccompanyingGuests() + 1)
+                .sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<ErrorType> bookingRejection(String guestName, int tableNumber, int accompanyingNumber) {
+
+        val tableDB = tablesByNumber.get(tableNumber);
+        if (tableDB == null) {
+            return Optional.of(ErrorType.TABLE_NOT_FOUND);
+        }
+        if (reservationsByName.containsKey(guestName)) {
+            return Optional.of(ErrorType.GUEST_BOOKED_ALREADY);
+        }
+        if (reservationsByTable.containsKey(tableNumber)) {
+            return Optional.of(ErrorType.TABLE_NOT_AVAILABLE);
+        }
+        if (tableDB.getTableCapacity() <= accompanyingNumber) {
+            return Optional.of(ErrorType.TABLE_CAPACITY_EXCEEDED);
+        }
+        return Optional.empty();
+    }
+
+    private TableOccupancy occupancy(TableDb tableDB) {
+        val reservationDB = reservationsByTable.get(tableDB.getTableNumber());
+        val arrivedGuestDB = reservationDB == null ? null : arrivalsByName.get(reservationDB.getName());
+        return TableOccupancy.of(
+            tableDB.getTableNumber(),
+            tableDB.getTableCapacity(),
+            reservationDB == null ? 0 : reservationDB.getAccompanyingGuests() + 1,
+            arrivedGuestDB == null ? 0 : arrivedGuestDB.getAccompanyingGuests() + 1);
+    }
+
+    private void index(ReservationDb reservationDB) {
+        reservationsByName.put(reservationDB.getName(), reservationDB);
+        reservationsByTable.put(reservationDB.getTableNumber(), reservationDB);
+    }
+
+    private void unindex(ReservationDb reservationDB) {
+        reservationsByName.remove(reservationDB.getName());
+        reservationsByTable.remove(reservationDB.getTableNumber());
+    }
+}
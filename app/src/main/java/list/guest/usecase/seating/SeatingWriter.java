@@ -0,0 +1,38 @@
+package list.guest.usecase.seating;
+
+import java.util.List;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import list.guest.adapter.persistence.ReservationDb;
+
+/**
+ * Writes the changes accepted by the {@link SeatingState} through to the database.
+ */
+public interface SeatingWriter {
+
+    public static enum Durability {
+        // the change is in the database before the request is answered
+        SYNC,
+        // the change is queued and written in the background; it may be lost on a crash
+        ASYNC,
+        // the change is queued and written in the background with the others queued alongside it,
+        // in one transaction; it may be lost on a crash
+        BATCHED
+    }
+
+    void reservationAdded(ReservationDb reservation);
+
+    void reservationsAdded(List<ReservationDb> reservations);
+
+    void arrivalAdded(ArrivedGuestDb arrival);
+
+    void arrivalRemoved(Departure departure);
+
+    default void arrivalsAdded(List<ArrivedGuestDb> arrivals) {
+        arrivals.forEach(this::arrivalAdded);
+    }
+
+    default void arrivalsRemoved(List<Departure> departures) {
+        departures.forEach(this::arrivalRemoved);
+    }
+}
@@ -0,0 +1,52 @@
+package list.guest.usecase.seating;
+
+import static java.util.stream.Collectors.*;
+
+import java.util.List;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import list.guest.adapter.persistence.ArrivedGuestRepository;
+import list.guest.adapter.persistence.ReservationDb;
+import list.guest.adapter.persistence.ReservationRepository;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class SyncSeatingWriter implements SeatingWriter {
+
+    private @NonNull ReservationRepository reservationRepository;
+    private @NonNull ArrivedGuestRepository arrivedGuestRepository;
+
+    @Override
+    public void reservationAdded(ReservationDb reservation) {
+        reservationRepository.save(reservation);
+    }
+
+    @Override
+    public void reservationsAdded(List<ReservationDb> reservations) {
+        reservationRepository.insertAll(reservations);
+    }
+
+    @Override
+    public void arrivalAdded(ArrivedGuestDb arrival) {
+        arrivedGuestRepository.save(arrival);
+    }
+
+    @Override
+    public void arrivalRemoved(Departure departure) {
+        // the arrival may not have been given its id yet, so delete it by its unique name
+        arrivedGuestRepository.deleteByName(departure.getArrival().getName());
+    }
+
+    @Override
+    public void arrivalsAdded(List<ArrivedGuestDb> arrivals) {
+        arrivedGuestRepository.insertAll(arrivals);
+    }
+
+    @Override
+    public void arrivalsRemoved(List<Departure> departures) {
+        arrivedGuestRepository.deleteAllByName(departures.stream()
+            .map(departure -> departure.getArrival().getName())
+            .collect(toList()));
+    }
+}
@@ -0,0 +1,14 @@
+-- Covering indexes for the joins behind the seat counts, the table occupancy and the check-in.
+-- Each one holds every column its query reads from the table, so the rows themselves are never visited.
+
+-- table_db -> reservation_db by table number, reading the guest's name and party size
+CREATE INDEX reservation_table_guest_idx ON reservation_db (table_number, name, accompanying_guests);
+
+-- reservation_db -> arrived_guest_db by name, reading the party size
+CREATE INDEX arrived_guest_party_idx ON arrived_guest_db (name, accompanying_guests);
+
+-- arrivals in the order they came in
+CREATE INDEX arrived_guest_time_idx ON arrived_guest_db (time_arrived, name, accompanying_guests);
+
+-- the free tables that fit a party, smallest first
+CREATE INDEX table_capacity_idx ON table_db (table_capacity, table_number);
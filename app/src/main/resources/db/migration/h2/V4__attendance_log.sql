@@ -0,0 +1,34 @@
+-- Arrivals and departures as an append-only log, for the in-memory seating state (guestlist.seating.attendance-log)
+CREATE TABLE IF NOT EXISTS attendance_event_db (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    type VARCHAR(16) NOT NULL,
+    accompanying_guests INT,
+    event_time DATETIME NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- The guests in the venue once the log had been replayed up to last_event_id
+CREATE TABLE IF NOT EXISTS attendance_snapshot_db (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    last_event_id BIGINT NOT NULL,
+    time_taken DATETIME NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS attendance_snapshot_guest_db (
+    snapshot_id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    accompanying_guests INT NOT NULL,
+    time_arrived DATETIME,
+    PRIMARY KEY (snapshot_id, name),
+    FOREIGN KEY (snapshot_id)
+        REFERENCES attendance_snapshot_db (id)
+        ON DELETE CASCADE
+);
+
+-- the log starts with the guests already in the venue
+INSERT INTO attendance_event_db (name, type, accompanying_guests, event_time)
+SELECT name, 'ARRIVED', accompanying_guests, COALESCE(time_arrived, CURRENT_TIMESTAMP)
+FROM arrived_guest_db
+ORDER BY time_arrived, id;
@@ -0,0 +1,5 @@
+-- No query reads the arrivals in the order they came in, and every lookup and join by name is served by the
+-- unique index on it: the arrivals table is small enough that reading the party size from the row costs nothing
+-- next to keeping two more indexes up to date on every check-in and check-out
+DROP INDEX IF EXISTS arrived_guest_time_idx;
+DROP INDEX IF EXISTS arrived_guest_party_idx;
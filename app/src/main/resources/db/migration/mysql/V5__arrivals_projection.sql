@@ -0,0 +1,11 @@
+-- How far into the attendance log the arrivals table is. The table is not written while the log is on,
+-- so when the log is ahead of it, it is rebuilt from the log once the log is turned off again
+CREATE TABLE IF NOT EXISTS arrivals_projection_db (
+    id INT NOT NULL,
+    last_event_id BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- the table has been written alongside the log so far
+INSERT INTO arrivals_projection_db (id, last_event_id)
+SELECT 1, COALESCE(MAX(id), 0) FROM attendance_event_db;
@@ -0,0 +1,148 @@
+/***************************\
+   Acceptance Tests
+\***************************/
+package list.guest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import list.guest.adapter.persistence.ArrivedGuestRepository;
+import list.guest.adapter.persistence.AttendanceEventDb;
+import list.guest.adapter.persistence.AttendanceEventRepository;
+import list.guest.adapter.persistence.ReservationRepository;
+import list.guest.adapter.persistence.TableDb;
+import list.guest.adapter.persistence.TableRepository;
+import list.guest.dto.ArrivedGuest;
+import list.guest.usecase.GuestlistService;
+import list.guest.usecase.exceptions.GuestListException;
+import list.guest.usecase.seating.AttendanceLog;
+import list.guest.usecase.seating.SeatingState;
+import lombok.val;
+
+/**
+ * The in-memory seating state with its arrivals and departures appended to the attendance log
+ */
+@SpringBootTest(
+    classes = MainApplication.class,
+    properties = {
+        "guestlist.seating.in-memory=true",
+        "guestlist.seating.attendance-log=true",
+        "guestlist.attendance.snapshot-interval=3600000"})
+@TestInstance(Lifecycle.PER_CLASS)
+class AttendanceLogApplicationTests {
+
+    private static final String TEST_GUEST = "Attendance Log Guest";
+    // arrives and leaves straight through the arrivals table, as when the log is off
+    private static final String WALK_IN_GUEST = "Attendance Log Walk-in Guest";
+    private static final int TABLE_NUMBER = 99980;
+    private static final int TABLE_CAPACITY = 10;
+    private static final int ACCOMPANYING_NUMBER = 3;
+
+    @Autowired
+    private GuestlistService guestlistService;
+
+    @Autowired
+    private SeatingState seatingState;
+
+    @Autowired
+    private AttendanceLog attendanceLog;
+
+    @Autowired
+    private AttendanceEventRepository attendanceEventRepository;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ArrivedGuestRepository arrivedGuestRepository;
+
+    private TableDb testTable;
+
+    @BeforeAll
+    void setup() throws GuestListException {
+        this.testTable = tableRepository.save(TableDb.of(TABLE_NUMBER, TABLE_CAPACITY));
+        guestlistService.bookTable(TEST_GUEST, TABLE_NUMBER, ACCOMPANYING_NUMBER);
+    }
+
+    @AfterAll
+    void teardown() {
+        reservationRepository.findByName(TEST_GUEST)
+            .ifPresent(reservation -> reservationRepository.delete(reservation));
+        tableRepository.delete(this.testTable);
+    }
+
+    @Test
+    void given_TheGuestHasComeAndGone_when_TheSeatingStateIsReloaded_then_ItIsReplayedFromTheLatestSnapshotAndTheLaterEvents () throws GuestListException {
+        // given
+        val lastEventId = lastEventId();
+        guestlistService.checkGuestIn(TEST_GUEST, ACCOMPANYING_NUMBER);
+        guestlistService.checkGuestOut(TEST_GUEST);
+        attendanceLog.snapshot();
+        guestlistService.checkGuestIn(TEST_GUEST, ACCOMPANYING_NUMBER);
+        // when
+        seatingState.load();
+        // then
+        assertTrue(guestlistService.getArrivedGuests().stream()
+            .map(ArrivedGuest::getName)
+            .anyMatch(TEST_GUEST::equals));
+        // and every change has been appended, and only appended
+        val events = attendanceEventRepository.findAfter(lastEventId);
+        assertEquals(3, events.size());
+        assertEquals(AttendanceEventDb.Type.LEFT, events.get(1).getType());
+        assertTrue(arrivedGuestRepository.findByName(TEST_GUEST).isEmpty());
+        // and when the guest leaves again
+        guestlistService.checkGuestOut(TEST_GUEST);
+        seatingState.load();
+        // then
+        assertTrue(guestlistService.getArrivedGuests().stream()
+            .map(ArrivedGuest::getName)
+            .noneMatch(TEST_GUEST::equals));
+    }
+
+    @Test
+    void given_GuestsCameAndWentWithoutTheLog_when_ItIsReconciled_then_TheReplayMatchesTheArrivalsTable () {
+        // given the arrivals table rebuilt from the log, as when the log is turned off
+        attendanceLog.projectArrivals();
+        assertEquals(names(attendanceLog.replay()), names(arrivedGuestRepository.findAll()));
+        val arrival = arrivedGuestRepository.save(ArrivedGuestDb.of(WALK_IN_GUEST, ACCOMPANYING_NUMBER, LocalDateTime.now()));
+        // when
+        attendanceLog.reconcile();
+        // then
+        assertTrue(attendanceLog.replay().stream()
+            .map(ArrivedGuestDb::getName)
+            .anyMatch(WALK_IN_GUEST::equals));
+        // and when the guest leaves without the log either
+        arrivedGuestRepository.delete(arrival);
+        attendanceLog.reconcile();
+        // then
+        assertTrue(attendanceLog.replay().stream()
+            .map(ArrivedGuestDb::getName)
+            .noneMatch(WALK_IN_GUEST::equals));
+    }
+
+    private static Set<String> names(Iterable<ArrivedGuestDb> arrivals) {
+        val names = new TreeSet<String>();
+        arrivals.forEach(arrival -> names.add(arrival.getName()));
+        return names;
+    }
+
+    private long lastEventId() {
+        val events = attendanceEventRepository.findAfter(0);
+        return events.isEmpty() ? 0 : events.get(events.size() - 1).getId();
+    }
+}
@@ -0,0 +1,94 @@
+/***************************\
+   Acceptance Tests
+\***************************/
+package list.guest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import list.guest.adapter.persistence.ArrivedGuestRepository;
+import list.guest.adapter.persistence.ReservationRepository;
+import list.guest.adapter.persistence.TableDb;
+import list.guest.adapter.persistence.TableRepository;
+import list.guest.usecase.GuestlistService;
+import list.guest.usecase.exceptions.GuestListException;
+
+/**
+ * The in-memory seating state with its changes written to the database in batches
+ */
+@SpringBootTest(
+    classes = MainApplication.class,
+    properties = {
+        "guestlist.seating.in-memory=true",
+        "guestlist.seating.durability=BATCHED"})
+@TestInstance(Lifecycle.PER_CLASS)
+class BatchedSeatingApplicationTests {
+
+    private static final String TEST_GUEST = "Batched Seating Guest";
+    private static final int TABLE_NUMBER = 99970;
+    private static final int TABLE_CAPACITY = 10;
+    private static final int ACCOMPANYING_NUMBER = 3;
+    private static final long WRITE_TIMEOUT_MS = 5000;
+
+    @Autowired
+    private GuestlistService guestlistService;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ArrivedGuestRepository arrivedGuestRepository;
+
+    private TableDb testTable;
+
+    @BeforeAll
+    void setup() {
+        this.testTable = tableRepository.save(TableDb.of(TABLE_NUMBER, TABLE_CAPACITY));
+    }
+
+    @AfterAll
+    void teardown() {
+        arrivedGuestRepository.deleteByName(TEST_GUEST);
+        reservationRepository.findByName(TEST_GUEST)
+            .ifPresent(reservation -> reservationRepository.delete(reservation));
+        tableRepository.delete(this.testTable);
+    }
+
+    @Test
+    void given_TheGuestComesAndGoesAndComesBack_when_TheBatchesAreWritten_then_TheDatabaseEndsUpWithTheLastArrival () throws Exception {
+        // given
+        guestlistService.bookTable(TEST_GUEST, TABLE_NUMBER, ACCOMPANYING_NUMBER);
+        guestlistService.checkGuestIn(TEST_GUEST, ACCOMPANYING_NUMBER);
+        guestlistService.checkGuestOut(TEST_GUEST);
+        guestlistService.checkGuestIn(TEST_GUEST, ACCOMPANYING_NUMBER);
+        // when
+        awaitWritten(() -> arrivedGuestRepository.findByName(TEST_GUEST).isPresent());
+        // then
+        assertTrue(reservationRepository.findByName(TEST_GUEST).isPresent());
+        assertEquals(ACCOMPANYING_NUMBER, arrivedGuestRepository.findByName(TEST_GUEST).get().getAccompanyingGuests());
+        // and when the guest leaves
+        guestlistService.checkGuestOut(TEST_GUEST);
+        // then
+        awaitWritten(() -> arrivedGuestRepository.findByName(TEST_GUEST).isEmpty());
+    }
+
+    private void awaitWritten(BooleanSupplier written) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + WRITE_TIMEOUT_MS;
+        while (!written.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Not written within " + WRITE_TIMEOUT_MS + "ms");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/***************************\
+   Load Tests
+\***************************/
+package list.guest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.*;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import list.guest.adapter.persistence.TableDb;
+import list.guest.adapter.persistence.TableRepository;
+import lombok.val;
+
+/**
+ * Replays the night the doors open against an instance on the embedded H2 database: the guests are booked in bulk,
+ * then arrive in a surge and leave staggered, while the door dashboards keep polling the seats empty and the guests in.
+ * Requests are sent open loop at the rate of the scenario, so a slow response does not hold the next ones back.
+ * Prints the throughput, latency percentiles and outcomes per endpoint, and fails when any endpoint breaches the SLO.
+ * <p>
+ * Run with {@code mvn -Pload test -Dtest=DoorsOpenLoadTests}. The scenario and the SLO are set with system properties,
+ * e.g. {@code -Dload.guests=2000 -Dload.surge-seconds=600 -Dload.slo.p99=100}, and the instance takes the
+ * {@code guestlist.*} ones too, e.g. {@code -Dguestlist.seating.in-memory=true}.
+ */
+@Tag("load")
+public class DoorsOpenLoadTests {
+
+    private static final int GUESTS = Integer.getInteger("load.guests", 2000);
+    // how long the guests take to arrive, and then to leave
+    private static final int SURGE_SECONDS = Integer.getInteger("load.surge-seconds", 60);
+    private static final int DASHBOARDS = Integer.getInteger("load.dashboards", 5);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(Long.getLong("load.poll-interval", 500));
+    // the door endpoints and the dashboards answer within these
+    private static final double SLO_P99_MS = Double.parseDouble(System.getProperty("load.slo.p99", "250"));
+    private static final double SLO_P999_MS = Double.parseDouble(System.getProperty("load.slo.p999", "1000"));
+    // a bulk booking books a hundred guests at a time, ahead of the night
+    private static final double SLO_BOOKING_P99_MS = Double.parseDouble(System.getProperty("load.slo.booking-p99", "2000"));
+    private static final double SLO_ERROR_RATE = Double.parseDouble(System.getProperty("load.slo.error-rate", "0"));
+
+    private static final int FIRST_TABLE = 60000;
+    private static final int TABLE_CAPACITY = 10;
+    private static final int ACCOMPANYING_GUESTS = 3;
+    private static final int BOOKINGS_PER_REQUEST = 100;
+    private static final Duration BOOKING_INTERVAL = Duration.ofMillis(100);
+    private static final int WARMUP_REQUESTS = 500;
+    private static final int CONCURRENCY = 200;
+    private static final long SEED = 2022;
+
+    @Test
+    void given_TheDoorsOpen_when_TheGuestsArriveAndLeave_then_EveryEndpointMeetsTheSlo () throws Exception {
+        val builder = new SpringApplicationBuilder(MainApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:doors-open;DB_CLOSE_DELAY=-1",
+                "logging.level.root=WARN");
+        try (ConfigurableApplicationContext context = builder.run()) {
+            // given
+            context.getBean(TableRepository.class).saveAll(
+                IntStream.range(FIRST_TABLE, FIRST_TABLE + GUESTS)
+                    .mapToObj(tableNumber -> TableDb.of(tableNumber, TABLE_CAPACITY))
+                    .collect(toList()));
+            val baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            val client = new LoadClient(CONCURRENCY);
+            // the dashboards are open before the doors, so the instance is warm
+            client.send(WARMUP_REQUESTS, i -> get(baseUrl, i % 2 == 0 ? "/seats_empty" : "/guests"), 200);
+            val bookings = new LoadReport();
+            val report = new LoadReport();
+            val start = System.nanoTime();
+            client.replay("POST /guest_list", (GUESTS + BOOKINGS_PER_REQUEST - 1) / BOOKINGS_PER_REQUEST, BOOKING_INTERVAL,
+                i -> book(baseUrl, i * BOOKINGS_PER_REQUEST, Math.min(GUESTS, (i + 1) * BOOKINGS_PER_REQUEST)), 200, bookings).join();
+            // when
+            val arrivalInterval = Duration.ofSeconds(SURGE_SECONDS).dividedBy(GUESTS);
+            val pollInterval = POLL_INTERVAL.dividedBy(DASHBOARDS);
+            val polls = (int) (Duration.ofSeconds(2L * SURGE_SECONDS).toNanos() / pollInterval.toNanos());
+            val dashboards = CompletableFuture.allOf(
+                client.replay("GET /seats_empty", polls, pollInterval, i -> get(baseUrl, "/seats_empty"), 200, report),
+                client.replay("GET /guests", polls, pollInterval, i -> get(baseUrl, "/guests"), 200, report));
+            client.replay("PUT /guests/{name}", GUESTS, arrivalInterval, i -> checkIn(baseUrl, i), 200, report).join();
+            val departures = departureOrder();
+            client.replay("DELETE /guests/{name}", GUESTS, arrivalInterval, i -> checkOut(baseUrl, departures.get(i)), 204, report).join();
+            dashboards.join();
+            // then
+            System.out.printf("%d guests booked, then arriving and leaving over %ds each with %d dashboards open, in %.1fs%n"
+                + "Bookings:%n%sDoors open:%n%s",
+                GUESTS, SURGE_SECONDS, DASHBOARDS, (System.nanoTime() - start) / 1e9, bookings.summary(), report.summary());
+            val breaches = bookings.breaches(SLO_BOOKING_P99_MS, SLO_BOOKING_P99_MS, SLO_ERROR_RATE);
+            breaches.addAll(report.breaches(SLO_P99_MS, SLO_P999_MS, SLO_ERROR_RATE));
+            assertTrue(breaches.isEmpty(), String.join("\n", breaches));
+        }
+    }
+
+    /**
+     * @return  the guests in the order they leave, which is not the order they came in
+     */
+    private static List<Integer> departureOrder() {
+        val guests = new ArrayList<Integer>(GUESTS);
+        IntStream.range(0, GUESTS).forEach(guests::add);
+        Collections.shuffle(guests, new Random(SEED));
+        return guests;
+    }
+
+    private static HttpRequest get(String baseUrl, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private static HttpRequest book(String baseUrl, int first, int last) {
+        val guests = IntStream.range(first, last)
+            .mapToObj(guest -> "{\"name\": \"surge-" + guest + "\", \"table\": \"" + (FIRST_TABLE + guest)
+                + "\", \"accompanying_guests\": \"" + ACCOMPANYING_GUESTS + "\"}")
+            .collect(joining(", "));
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/guest_list"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"guests\": [" + guests + "]}"))
+            .build();
+    }
+
+    private static HttpRequest checkIn(String baseUrl, int guest) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/guests/surge-" + guest))
+            .header("Content-Type", "application/json")
+            .PUT(HttpRequest.BodyPublishers.ofString("{\"accompanying_guests\": \"" + ACCOMPANYING_GUESTS + "\"}"))
+            .build();
+    }
+
+    private static HttpRequest checkOut(String baseUrl, int guest) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/guests/surge-" + guest)).DELETE().build();
+    }
+}
@@ -0,0 +1,83 @@
+/***************************\
+   Acceptance Tests
+\***************************/
+package list.guest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import list.guest.config.CurrentSchemaMigrationStrategy;
+import lombok.val;
+
+/**
+ * The fast-startup profile
+ */
+@SpringBootTest(
+    classes = MainApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("fast-startup")
+class FastStartupApplicationTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void given_TheDocumentationHasNotBeenAskedFor_when_ItIsAskedFor_then_ItIsBuiltThen () {
+        // given
+        val beanFactory = context.getBeanFactory();
+        val documentationBeans = Arrays.stream(beanFactory.getBeanDefinitionNames())
+            .filter(name -> beanFactory.getType(name, false) != null
+                && beanFactory.getType(name, false).getName().equals("org.springdoc.webmvc.api.OpenApiWebMvcResource"))
+            .toArray(String[]::new);
+        assertEquals(1, documentationBeans.length);
+        assertTrue(beanFactory.getBeanDefinition(documentationBeans[0]).isLazyInit());
+        assertFalse(beanFactory.containsSingleton(documentationBeans[0]));
+        // when
+        webTestClient.get().uri("/v3/api-docs")
+            .exchange()
+        // then
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.paths['/guest_list']").exists();
+        assertTrue(beanFactory.containsSingleton(documentationBeans[0]));
+    }
+
+    @Test
+    void given_TheSchemaIsCurrent_when_TheApplicationStarts_then_FlywayIsLeftOut () {
+        // given
+        val flyway = spy(this.flyway);
+        // when
+        new CurrentSchemaMigrationStrategy().migrate(flyway);
+        // then
+        verify(flyway, never()).migrate();
+    }
+
+    @Test
+    void given_AnEmptyDatabase_when_TheApplicationStarts_then_ItIsMigrated () {
+        // given
+        val flyway = spy(Flyway.configure()
+            .dataSource("jdbc:h2:mem:fast-startup-empty;DB_CLOSE_DELAY=-1", "sa", "")
+            .locations("classpath:db/migration/h2")
+            .load());
+        // when
+        new CurrentSchemaMigrationStrategy().migrate(flyway);
+        // then
+        verify(flyway).migrate();
+        assertEquals(0, flyway.info().pending().length);
+    }
+}
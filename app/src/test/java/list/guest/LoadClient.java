@@ -0,0 +1,101 @@
+package list.guest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+import lombok.val;
+
+/**
+ * Fires requests at a running instance, at most {@code concurrency} of them at a time, and times each one
+ */
+class LoadClient {
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final int concurrency;
+
+    LoadClient(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Sends the requests and fails if any of them is not answered with {@code expectedStatus}
+     * @param requests  builds the i-th request
+     * @return  the latency of each request in nanoseconds, in the order they were sent
+     */
+    long[] send(int count, IntFunction<HttpRequest> requests, int expectedStatus) throws InterruptedException {
+        val inFlight = new Semaphore(concurrency);
+        val failures = new AtomicInteger();
+        val latencies = new long[count];
+        val responses = new CompletableFuture<?>[count];
+        for (int i = 0; i < count; i++) {
+            val request = requests.apply(i);
+            val index = i;
+            inFlight.acquire();
+            val start = System.nanoTime();
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, e) -> {
+                    latencies[index] = System.nanoTime() - start;
+                    if (e != null || response.statusCode() != expectedStatus) {
+                        failures.incrementAndGet();
+                    }
+                    inFlight.release();
+                });
+        }
+        CompletableFuture.allOf(responses).exceptionally(e -> null).join();
+        assertEquals(0, failures.get());
+        return latencies;
+    }
+
+    /**
+     * Sends the requests open loop, the i-th one {@code i} intervals after the first, however long the previous
+     * ones take, and records each outcome in the report. Latencies are measured from when each request was due,
+     * so the wait of a request held back by a slow service, or by the concurrency limit, counts too.
+     * @param requests  builds the i-th request
+     * @return  completes once every request has been answered
+     */
+    CompletableFuture<Void> replay(String endpoint, int count, Duration interval, IntFunction<HttpRequest> requests,
+            int expectedStatus, LoadReport report) {
+
+        val sent = new CompletableFuture<CompletableFuture<?>[]>();
+        val scheduler = new Thread(() -> {
+            val inFlight = new Semaphore(concurrency);
+            val responses = new CompletableFuture<?>[count];
+            val start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                val due = start + i * interval.toNanos();
+                LockSupport.parkNanos(due - System.nanoTime());
+                val request = requests.apply(i);
+                inFlight.acquireUninterruptibly();
+                responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        val outcome = e != null ? e.getClass().getSimpleName() : Integer.toString(response.statusCode());
+                        report.record(endpoint, outcome, e == null && response.statusCode() == expectedStatus, due, System.nanoTime());
+                        inFlight.release();
+                    });
+            }
+            sent.complete(responses);
+        }, "load-" + endpoint);
+        scheduler.setDaemon(true);
+        scheduler.start();
+        return sent.thenCompose(responses -> CompletableFuture.allOf(responses).exceptionally(e -> null));
+    }
+
+    /**
+     * @return  the latency below which {@code percentile} of the requests have been answered, in milliseconds
+     */
+    static double percentile(long[] latencies, double percentile) {
+        val sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1e6;
+    }
+}
@@ -0,0 +1,101 @@
+package list.guest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.util.stream.Collectors.*;
+
+import lombok.val;
+
+/**
+ * The latencies and outcomes of the requests sent to each endpoint, with their throughput
+ */
+class LoadReport {
+
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    private static class Endpoint {
+        long[] latencies = new long[1024];
+        int count;
+        int errors;
+        final Map<String, Integer> outcomes = new TreeMap<>();
+        long firstSent = Long.MAX_VALUE;
+        long lastAnswered = Long.MIN_VALUE;
+
+        long[] latencies() {
+            return Arrays.copyOf(latencies, count);
+        }
+
+        double throughput() {
+            return count * 1e9 / Math.max(1, lastAnswered - firstSent);
+        }
+    }
+
+    /**
+     * @param outcome   the status code answered, or the exception if there was no answer
+     * @param expected  whether the outcome is the one expected
+     * @param sent      when the request was due, in {@link System#nanoTime()}
+     * @param answered  when it was answered, in {@link System#nanoTime()}
+     */
+    synchronized void record(String endpoint, String outcome, boolean expected, long sent, long answered) {
+        val stats = endpoints.computeIfAbsent(endpoint, e -> new Endpoint());
+        if (stats.count == stats.latencies.length) {
+            stats.latencies = Arrays.copyOf(stats.latencies, stats.count * 2);
+        }
+        stats.latencies[stats.count++] = answered - sent;
+        stats.outcomes.merge(outcome, 1, Integer::sum);
+        if (!expected) {
+            stats.errors++;
+        }
+        stats.firstSent = Math.min(stats.firstSent, sent);
+        stats.lastAnswered = Math.max(stats.lastAnswered, answered);
+    }
+
+    /**
+     * One line per endpoint: requests, requests per second, p50, p99 and p99.9 in milliseconds, errors and outcomes
+     */
+    synchronized String summary() {
+        val summary = new StringBuilder(String.format("%-24s %8s %8s %9s %9s %9s %7s  %s%n",
+            "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "errors", "outcomes"));
+        endpoints.forEach((endpoint, stats) -> {
+            val latencies = stats.latencies();
+            summary.append(String.format("%-24s %8d %8.1f %9.2f %9.2f %9.2f %7d  %s%n",
+                endpoint, stats.count, stats.throughput(),
+                LoadClient.percentile(latencies, 0.5),
+                LoadClient.percentile(latencies, 0.99),
+                LoadClient.percentile(latencies, 0.999),
+                stats.errors,
+                stats.outcomes.entrySet().stream()
+                    .map(outcome -> outcome.getKey() + " x" + outcome.getValue())
+                    .collect(joining(", "))));
+        });
+        return summary.toString();
+    }
+
+    /**
+     * @param p99           the p99 latency every endpoint must stay within, in milliseconds
+     * @param p999          the p99.9 latency every endpoint must stay within, in milliseconds
+     * @param errorRate     the share of unexpected outcomes every endpoint must stay within
+     * @return  a description of every breach, if any
+     */
+    synchronized List<String> breaches(double p99, double p999, double errorRate) {
+        val breaches = new ArrayList<String>();
+        endpoints.forEach((endpoint, stats) -> {
+            val latencies = stats.latencies();
+            check(breaches, endpoint, "p99", LoadClient.percentile(latencies, 0.99), p99, "%.2f ms");
+            check(breaches, endpoint, "p99.9", LoadClient.percentile(latencies, 0.999), p999, "%.2f ms");
+            check(breaches, endpoint, "error rate", (double) stats.errors / stats.count, errorRate, "%.4f");
+        });
+        return breaches;
+    }
+
+    private static void check(List<String> breaches, String endpoint, String measure, double value, double limit, String format) {
+        if (value > limit) {
+            breaches.add(String.format("%s %s " + format + " over the SLO of " + format, endpoint, measure, value, limit));
+        }
+    }
+}
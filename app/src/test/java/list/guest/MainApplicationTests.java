@@ -11,24 +11,43 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.HttpStatus;
 // import org.springframework.test.context.ActiveProfiles;
 // import org.springframework.test.context.junit.jupiter.EnabledIf;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 import list.guest.adapter.controller.ErrorMessages;
+import list.guest.adapter.controller.IdempotentRequests;
 import list.guest.adapter.controller.dto.ArrivalNotificationRequest;
+import list.guest.adapter.controller.dto.BatchReservationRequest;
+import list.guest.adapter.controller.dto.ChangesResponse;
+import list.guest.adapter.controller.dto.GuestReservationRequest;
 import list.guest.adapter.controller.dto.ReservationRequest;
-import list.guest.adapter.persistence.ArrivedGuestRepository;
 import list.guest.adapter.persistence.ReservationRepository;
 import list.guest.adapter.persistence.TableDb;
 import list.guest.adapter.persistence.TableRepository;
+import list.guest.usecase.GuestlistService;
+import list.guest.usecase.exceptions.GuestListException;
 import lombok.val;
 import reactor.core.publisher.Mono;
 
 import static org.springframework.http.HttpHeaders.*;
 import static org.springframework.http.MediaType.*;
 
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 // Run these tests only when the "integration-tests" profile is active
@@ -40,6 +59,7 @@ import java.util.stream.StreamSupport;
 @SpringBootTest( 
     classes = MainApplication.class,
     webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMetrics
 @TestInstance(Lifecycle.PER_CLASS)
 class MainApplicationTests {
 	
@@ -47,8 +67,13 @@ class MainApplicationTests {
     private static final String ANOTHER_TEST_GUEST = "Another Test Guest";
     private static final int TABLE_NUMBER = 99999;
     private static final int TABLE_CAPACITY = 10;
+    private static final int SMALL_TABLE_NUMBER = 99997;
+    private static final int SMALL_TABLE_CAPACITY = 2;
     private static final int SUCCESSFUL_ACCOMPANYING_NUMBER = 8;
     private static final int FAILED_ACCOMPANYING_NUMBER = 13;
+    private static final int CONCURRENT_SCANNERS = 8;
+    // guestlist.bookings.batch.max-size
+    private static final int MAX_BATCH_SIZE = 1000;
 
 	private TableDb testTable;
 	private ReservationRequest reservationRequest;
@@ -66,8 +91,9 @@ class MainApplicationTests {
 	@Autowired
 	private ReservationRepository reservationRepository;
 
+	// the arrivals are read through the use cases, as the arrivals table is not written while the attendance log is on
 	@Autowired
-	private ArrivedGuestRepository arrivedGuestRepository;
+	private GuestlistService guestlistService;
 
 	@BeforeAll
 	void setup() {
@@ -93,13 +119,19 @@ class MainApplicationTests {
 	}
 
 	@AfterEach
-	void afterEachTest() {
+	void afterEachTest() throws GuestListException {
+		// clean up guest arrival
+		if (isIn(TEST_GUEST)) {
+			guestlistService.checkGuestOut(TEST_GUEST);
+		}
 		// clean up reservation made
 		reservationRepository.findByName(TEST_GUEST)
 			.ifPresent(reservation -> reservationRepository.delete(reservation));
-		// clean up guest arrival
-		arrivedGuestRepository.findByName(TEST_GUEST)
-			.ifPresent(arrival -> arrivedGuestRepository.delete(arrival));
+	}
+
+	private boolean isIn(String guestName) {
+		return guestlistService.getArrivedGuests().stream()
+			.anyMatch(arrivedGuest -> arrivedGuest.getName().equals(guestName));
 	}
 
 	@Test
@@ -226,6 +258,135 @@ class MainApplicationTests {
 			.jsonPath("$.reason").isEqualTo(ErrorMessages.GUEST_BOOKED_ALREADY.value());
 	}
 
+    @Test
+    void given_NoTableIsRequested_when_GuestRequestToBookATable_then_TheSmallestFreeTableThatFitsIsBooked () {
+		// given
+		// a free table just big enough, smaller than any other in the venue
+		val smallTable = tableRepository.save(TableDb.of(SMALL_TABLE_NUMBER, SMALL_TABLE_CAPACITY));
+		try {
+			// when
+			this.webTestClient
+				.post()
+				.uri("/guest_list/{name}", TEST_GUEST)
+				.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+				.header(ACCEPT, APPLICATION_JSON_VALUE)
+				.body(Mono.just(new ReservationRequest(null, String.valueOf(SMALL_TABLE_CAPACITY - 1))), ReservationRequest.class)
+				.exchange()
+			// then
+				.expectStatus()
+				.isOk()
+				.expectBody()
+				.jsonPath("$.name").isEqualTo(TEST_GUEST)
+				.jsonPath("$.table").isEqualTo(String.valueOf(SMALL_TABLE_NUMBER));
+			assertEquals(SMALL_TABLE_NUMBER, reservationRepository.findByName(TEST_GUEST).get().getTableNumber());
+		} finally {
+			reservationRepository.findByName(TEST_GUEST)
+				.ifPresent(reservation -> reservationRepository.delete(reservation));
+			tableRepository.delete(smallTable);
+		}
+	}
+
+    @Test
+    void given_NoFreeTableFitsTheParty_when_GuestRequestToBookATable_then_AnErrorIsThrown () {
+		// when
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.body(Mono.just(new ReservationRequest(null, "99")), ReservationRequest.class)
+			.exchange()
+		// then
+			.expectStatus()
+			.isEqualTo(HttpStatus.CONFLICT)
+			.expectBody()
+			.jsonPath("$.reason").isEqualTo(ErrorMessages.NO_TABLE_AVAILABLE.value());
+	}
+
+    @Test
+    void given_ABatchOfGuests_when_TheyRequestToBookTables_then_EachBookingIsReportedOn () {
+		// given
+		val batchReservationRequest = new BatchReservationRequest(List.of(
+			new GuestReservationRequest(TEST_GUEST, String.valueOf(TABLE_NUMBER), String.valueOf(SUCCESSFUL_ACCOMPANYING_NUMBER)),
+			new GuestReservationRequest(ANOTHER_TEST_GUEST, String.valueOf(TABLE_NUMBER), String.valueOf(SUCCESSFUL_ACCOMPANYING_NUMBER)),
+			new GuestReservationRequest(ANOTHER_TEST_GUEST, String.valueOf(99998), String.valueOf(SUCCESSFUL_ACCOMPANYING_NUMBER))));
+		// when
+		this.webTestClient
+			.post()
+			.uri("/guest_list")
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.body(Mono.just(batchReservationRequest), BatchReservationRequest.class)
+			.exchange()
+		// then
+			.expectHeader()
+			.contentType(APPLICATION_JSON)
+			.expectStatus()
+			.isOk()
+			.expectBody()
+			.jsonPath("$.guests.length()").isEqualTo(3)
+			.jsonPath("$.guests[0].name").isEqualTo(TEST_GUEST)
+			.jsonPath("$.guests[0].booked").isEqualTo(true)
+			.jsonPath("$.guests[1].booked").isEqualTo(false)
+			.jsonPath("$.guests[1].reason").isEqualTo(ErrorMessages.TABLE_NOT_AVAILABLE.value())
+			.jsonPath("$.guests[2].reason").isEqualTo(ErrorMessages.TABLE_NOT_FOUND.value());
+	}
+
+    @Test
+    void given_ABatchLargerThanTheLimit_when_TheGuestsRequestToBookTables_then_NoneIsBooked () {
+		// given
+		val guests = new ArrayList<GuestReservationRequest>();
+		for (int i = 0; i <= MAX_BATCH_SIZE; i++) {
+			guests.add(new GuestReservationRequest(TEST_GUEST + " " + i, String.valueOf(TABLE_NUMBER), String.valueOf(SUCCESSFUL_ACCOMPANYING_NUMBER)));
+		}
+		// when
+		this.webTestClient
+			.post()
+			.uri("/guest_list")
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.body(Mono.just(new BatchReservationRequest(guests)), BatchReservationRequest.class)
+			.exchange()
+		// then
+			.expectStatus()
+			.isBadRequest()
+			.expectBody()
+			.jsonPath("$.guests").isEqualTo("At most " + MAX_BATCH_SIZE + " guests can be booked at once");
+		assertTrue(reservationRepository.findByName(TEST_GUEST + " 0").isEmpty());
+	}
+
+    @Test
+    void given_TheTableHasBeenEnlarged_when_GuestRequestToBookATable_then_TheNewCapacityApplies () {
+		// given
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.body(Mono.just(invalidReservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isEqualTo(HttpStatus.CONFLICT);
+		tableRepository.delete(this.testTable);
+		this.testTable = tableRepository.save(TableDb.of(TABLE_NUMBER, FAILED_ACCOMPANYING_NUMBER + 1));
+		try {
+			// when
+			this.webTestClient
+				.post()
+				.uri("/guest_list/{name}", TEST_GUEST)
+				.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+				.body(Mono.just(invalidReservationRequest), ReservationRequest.class)
+				.exchange()
+			// then
+				.expectStatus()
+				.isOk();
+		} finally {
+			reservationRepository.findByName(TEST_GUEST)
+				.ifPresent(reservation -> reservationRepository.delete(reservation));
+			tableRepository.delete(this.testTable);
+			this.testTable = tableRepository.save(TableDb.of(TABLE_NUMBER, TABLE_CAPACITY));
+		}
+	}
+
     @Test
     void when_GuestlistIsRequested_then_ListOfAllGuestsIsReturned () {
 		// given
@@ -244,6 +405,244 @@ class MainApplicationTests {
 			.jsonPath("$.length()").isEqualTo(numberOfGuests);		
 	}
 
+    @Test
+    void given_APageSize_when_GuestlistIsRequested_then_OnePageIsReturnedWithALinkToTheNext () {
+		// given
+		val firstGuest = reservationRepository.findPageAfter("", 1).get(0).getName();
+		// when
+		this.webTestClient
+			.get()
+			.uri("/guest_list?limit=1")
+			.exchange()
+		// then
+			.expectStatus()
+			.isOk()
+			.expectHeader()
+			.value(LINK, link -> assertTrue(link.contains("after=") && link.endsWith("rel=\"next\"")))
+			.expectBody()
+			.jsonPath("$.length()").isEqualTo(1)
+			.jsonPath("$[0].name").isEqualTo(firstGuest);
+	}
+
+    @Test
+    void given_NdjsonIsAccepted_when_GuestlistIsRequested_then_OneGuestPerLineIsStreamed () {
+		// given
+		val numberOfGuests = (int)reservationRepository.count();
+		// when
+		val body = this.webTestClient
+			.get()
+			.uri("/guest_list")
+			.header(ACCEPT, APPLICATION_NDJSON_VALUE)
+			.exchange()
+		// then
+			.expectHeader()
+			.contentType(APPLICATION_NDJSON)
+			.expectStatus()
+			.isOk()
+			.expectBody(String.class)
+			.returnResult()
+			.getResponseBody();
+		assertEquals(numberOfGuests, body.lines().count());
+		assertTrue(body.lines().allMatch(line -> line.startsWith("{\"name\":")));
+	}
+
+    @Test
+    void given_TheGuestHasBooked_when_TheDoorStaffSearchForAMisspellingOfTheirName_then_TheGuestIsFound () {
+		// given
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.body(Mono.just(reservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		// when
+		this.webTestClient
+			.get()
+			.uri("/guest_list/search?q={query}", "test gest")
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.exchange()
+		// then
+			.expectStatus()
+			.isOk()
+			.expectBody()
+			.jsonPath("$[0].name").isEqualTo(TEST_GUEST)
+			.jsonPath("$[0].table").isEqualTo(String.valueOf(TABLE_NUMBER));
+	}
+
+    @Test
+    void given_TheGuestlistHasNotChanged_when_ItIsRequestedWithItsETag_then_ItIsNotSentAgain () {
+		// given
+		val eTag = this.webTestClient
+			.get()
+			.uri("/guest_list")
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.returnResult(String.class)
+			.getResponseHeaders()
+			.getETag();
+		assertNotNull(eTag);
+		// when
+		this.webTestClient
+			.get()
+			.uri("/guest_list")
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.header(IF_NONE_MATCH, eTag)
+			.exchange()
+		// then
+			.expectStatus()
+			.isNotModified()
+			.expectBody()
+			.isEmpty();
+		// and when a guest books a table
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.body(Mono.just(reservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		// then the list is sent again, with a new tag
+		val newETag = this.webTestClient
+			.get()
+			.uri("/guest_list")
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.header(IF_NONE_MATCH, eTag)
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.returnResult(String.class)
+			.getResponseHeaders()
+			.getETag();
+		assertNotEquals(eTag, newETag);
+	}
+
+    @Test
+    void given_TheGuestlistHasBeenRead_when_AGuestArrives_then_ItsETagStillHolds () {
+		// given
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.body(Mono.just(reservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		val eTag = this.webTestClient
+			.get()
+			.uri("/guest_list")
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.returnResult(String.class)
+			.getResponseHeaders()
+			.getETag();
+		val pageETag = this.webTestClient
+			.get()
+			.uri("/guest_list?limit=1")
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.returnResult(String.class)
+			.getResponseHeaders()
+			.getETag();
+		assertNotEquals(eTag, pageETag);
+		// when
+		this.webTestClient
+			.put()
+			.uri("/guests/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.body(Mono.just(arrivalNotificationRequest), ArrivalNotificationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		// then
+		this.webTestClient
+			.get()
+			.uri("/guest_list")
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.header(IF_NONE_MATCH, eTag)
+			.exchange()
+			.expectStatus()
+			.isNotModified();
+	}
+
+    @Test
+    void given_AVersion_when_TheChangesSinceItAreRequested_then_OnlyTheLaterBookingsArrivalsAndDeparturesAreReturned () {
+		// given
+		val version = this.webTestClient
+			.get()
+			.uri("/changes?since={time}", LocalDateTime.now().plusDays(1))
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.expectBody(ChangesResponse.class)
+			.returnResult()
+			.getResponseBody()
+			.getVersion();
+		// and the guest books, arrives and leaves
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.body(Mono.just(reservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		this.webTestClient
+			.put()
+			.uri("/guests/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.body(Mono.just(arrivalNotificationRequest), ArrivalNotificationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		this.webTestClient
+			.delete()
+			.uri("/guests/{name}", TEST_GUEST)
+			.exchange()
+			.expectStatus()
+			.isNoContent();
+		// when
+		this.webTestClient
+			.get()
+			.uri("/changes?since={version}", version)
+			.exchange()
+		// then
+			.expectStatus()
+			.isOk()
+			.expectBody()
+			.jsonPath("$.version").value(newVersion -> assertNotEquals(version, newVersion))
+			.jsonPath("$.changes.length()").isEqualTo(3)
+			.jsonPath("$.changes[0].type").isEqualTo("booked")
+			.jsonPath("$.changes[0].table").isEqualTo(String.valueOf(TABLE_NUMBER))
+			.jsonPath("$.changes[1].type").isEqualTo("arrived")
+			.jsonPath("$.changes[1].accompanying_guests").isEqualTo(String.valueOf(SUCCESSFUL_ACCOMPANYING_NUMBER))
+			.jsonPath("$.changes[2].type").isEqualTo("left")
+			.jsonPath("$.changes[2].name").isEqualTo(TEST_GUEST);
+	}
+
+    @Test
+    void given_AVersionFromBeforeARestart_when_TheChangesSinceItAreRequested_then_TheClientIsToldToReadTheListsAgain () {
+		// when
+		this.webTestClient
+			.get()
+			.uri("/changes?since={version}", "0-42")
+			.exchange()
+		// then
+			.expectStatus()
+			.isEqualTo(HttpStatus.GONE);
+	}
+
 /******************************\
  * Controlling the attendance *
 \******************************/
@@ -367,6 +766,46 @@ class MainApplicationTests {
 			.jsonPath("$.reason").isEqualTo(ErrorMessages.GUEST_HAS_ALREADY_ARRIVED.value());
 	}
 
+    @Test
+    void given_SeveralScannersReadTheSameGuest_when_GuestArrives_then_TheyAreLetInOnlyOnce () throws Exception {
+		// given
+		// guest has got a reservation
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.body(Mono.just(reservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		// when
+		val scanners = Executors.newFixedThreadPool(CONCURRENT_SCANNERS);
+		val statuses = new ArrayList<Future<HttpStatus>>();
+		for (int i = 0; i < CONCURRENT_SCANNERS; i++) {
+			statuses.add(scanners.submit(() -> this.webTestClient
+				.put()
+				.uri("/guests/{name}", TEST_GUEST)
+				.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+				.header(ACCEPT, APPLICATION_JSON_VALUE)
+				.body(Mono.just(arrivalNotificationRequest), ArrivalNotificationRequest.class)
+				.exchange()
+				.returnResult(String.class)
+				.getStatus()));
+		}
+		scanners.shutdown();
+		// then
+		int admitted = 0;
+		for (val status : statuses) {
+			if (status.get() == HttpStatus.OK) {
+				admitted++;
+			} else {
+				assertEquals(HttpStatus.CONFLICT, status.get());
+			}
+		}
+		assertEquals(1, admitted);
+	}
+
     @Test
     void given_theGuestHasArrived_when_TheGuestLeaves_then_TheirEntourageLeaves () {
 		// given
@@ -438,7 +877,7 @@ class MainApplicationTests {
 	@Test
     void when_TheArrivedGuestsAreRequested_then_TheListOfAllArrivedGuestsIsReturned () {
 		// given
-		val numberOfGuestsIn = (int)arrivedGuestRepository.count();
+		val numberOfGuestsIn = guestlistService.getArrivedGuests().size();
 		// when
 		this.webTestClient
 			.get()
@@ -453,6 +892,90 @@ class MainApplicationTests {
 			.jsonPath("$.length()").isEqualTo(numberOfGuestsIn);		
 	}
 
+    @Test
+    void given_TheArrivalHasBeenScanned_when_TheScannerRetriesWithTheSameKey_then_TheOriginalResponseIsReplayed () {
+		// given
+		// guest has got a reservation
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.body(Mono.just(reservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		// and has been let in
+		val idempotencyKey = UUID.randomUUID().toString();
+		for (int scan = 0; scan < 2; scan++) {
+			// when
+			this.webTestClient
+				.put()
+				.uri("/guests/{name}", TEST_GUEST)
+				.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+				.header(ACCEPT, APPLICATION_JSON_VALUE)
+				.header(IdempotentRequests.HEADER, idempotencyKey)
+				.body(Mono.just(arrivalNotificationRequest), ArrivalNotificationRequest.class)
+				.exchange()
+			// then
+				.expectStatus()
+				.isOk()
+				.expectBody()
+				.jsonPath("$.name").isEqualTo(TEST_GUEST);
+		}
+		// and a scan without the key is still turned away
+		this.webTestClient
+			.put()
+			.uri("/guests/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.body(Mono.just(arrivalNotificationRequest), ArrivalNotificationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isEqualTo(HttpStatus.CONFLICT)
+			.expectBody()
+			.jsonPath("$.reason").isEqualTo(ErrorMessages.GUEST_HAS_ALREADY_ARRIVED.value());
+	}
+
+    @Test
+    void given_TheDepartureHasBeenScanned_when_TheScannerRetriesWithTheSameKey_then_TheOriginalResponseIsReplayed () {
+		// given
+		// guest has got a reservation
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.body(Mono.just(reservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		// and has arrived
+		this.webTestClient
+			.put()
+			.uri("/guests/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.body(Mono.just(arrivalNotificationRequest), ArrivalNotificationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		// and has left
+		val idempotencyKey = UUID.randomUUID().toString();
+		for (int scan = 0; scan < 2; scan++) {
+			// when
+			this.webTestClient
+				.delete()
+				.uri("/guests/{name}", TEST_GUEST)
+				.header(IdempotentRequests.HEADER, idempotencyKey)
+				.exchange()
+			// then
+				.expectStatus()
+				.isNoContent();
+		}
+		assertFalse(isIn(TEST_GUEST));
+	}
+
     @Test
     void when_TheNumberOfSeatsEmptyIsRequested_then_TheAvailableSeatsAcrossAllTabesIsReturned () {
 			// given
@@ -460,7 +983,7 @@ class MainApplicationTests {
 				.map(table -> table.getTableCapacity())
 				.mapToInt(Integer::intValue)
 				.sum();
-			val arrivedGuests = StreamSupport.stream(arrivedGuestRepository.findAll().spliterator(), false)
+			val arrivedGuests = guestlistService.getArrivedGuests().stream()
 				.map(arrivedGuest -> arrivedGuest.getAccompanyingGuests() + 1) // add the hostre
 				.mapToInt(Integer::intValue)
 				.sum();	
@@ -478,4 +1001,277 @@ class MainApplicationTests {
 				.jsonPath("$.seats_empty").isEqualTo(totalSeats - arrivedGuests);		
 	}
 
+    @Test
+    void given_TheGuestHasArrived_when_TheNumberOfSeatsEmptyAtTheirTableIsRequested_then_TheirPartyIsDiscounted () {
+		// given
+		// guest has got a reservation
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.body(Mono.just(reservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		// and has arrived
+		this.webTestClient
+			.put()
+			.uri("/guests/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.header(ACCEPT, APPLICATION_JSON_VALUE)
+			.body(Mono.just(arrivalNotificationRequest), ArrivalNotificationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		// when
+		this.webTestClient
+			.get()
+			.uri("/seats_empty/{table}", TABLE_NUMBER)
+			.exchange()
+		// then
+			.expectHeader()
+			.contentType(APPLICATION_JSON)
+			.expectStatus()
+			.isOk()
+			.expectBody()
+			.jsonPath("$.seats_empty").isEqualTo(TABLE_CAPACITY - SUCCESSFUL_ACCOMPANYING_NUMBER - 1);
+	}
+
+    @Test
+    void given_TheGuestHasArrived_when_TheTablesAreRequested_then_TheirTableShowsTheReservedAndArrivedParty () {
+		// given
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.body(Mono.just(reservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		this.webTestClient
+			.put()
+			.uri("/guests/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.body(Mono.just(arrivalNotificationRequest), ArrivalNotificationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		// when
+		this.webTestClient
+			.get()
+			.uri("/tables")
+			.exchange()
+		// then
+			.expectStatus()
+			.isOk()
+			.expectBody()
+			.jsonPath("$[?(@.table == '%s')].table_capacity", TABLE_NUMBER).isEqualTo(String.valueOf(TABLE_CAPACITY))
+			.jsonPath("$[?(@.table == '%s')].reserved_party_size", TABLE_NUMBER).isEqualTo(String.valueOf(SUCCESSFUL_ACCOMPANYING_NUMBER + 1))
+			.jsonPath("$[?(@.table == '%s')].arrived_party_size", TABLE_NUMBER).isEqualTo(String.valueOf(SUCCESSFUL_ACCOMPANYING_NUMBER + 1))
+			.jsonPath("$[?(@.table == '%s')].seats_empty", TABLE_NUMBER).isEqualTo(String.valueOf(TABLE_CAPACITY - SUCCESSFUL_ACCOMPANYING_NUMBER - 1));
+	}
+
+    @Test
+    void given_APartySize_when_TheTablesAreRequested_then_OnlyTheFreeTablesThatFitThePartyAreReturned () {
+		// given
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.body(Mono.just(reservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		// when
+		this.webTestClient
+			.get()
+			.uri("/tables?party_size={size}", TABLE_CAPACITY)
+			.exchange()
+		// then
+			.expectStatus()
+			.isOk()
+			.expectBody()
+			.jsonPath("$[?(@.table == '%s')]", TABLE_NUMBER).doesNotExist()
+			.jsonPath("$[*].reserved_party_size").value(sizes -> assertTrue(((List<?>) sizes).stream().allMatch("0"::equals)))
+			.jsonPath("$[*].table_capacity").value(capacities -> assertTrue(((List<?>) capacities).stream()
+				.allMatch(capacity -> Integer.parseInt((String) capacity) >= TABLE_CAPACITY)));
+	}
+
+/*************\
+ * Live feed *
+\*************/
+
+    @Test
+    void given_AClientIsSubscribedToTheEvents_when_GuestBooksArrivesAndLeaves_then_EachChangeIsPushedAfterTheSnapshot () {
+		// given
+		val events = this.webTestClient
+			.get()
+			.uri("/events")
+			.header(ACCEPT, TEXT_EVENT_STREAM_VALUE)
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+			.getResponseBody()
+			.timeout(Duration.ofSeconds(10))
+			.toIterable()
+			.iterator();
+		val snapshot = events.next();
+		assertEquals("snapshot", snapshot.event());
+		assertTrue(snapshot.data().contains("\"seats_empty\""));
+		// when
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.body(Mono.just(reservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		this.webTestClient
+			.put()
+			.uri("/guests/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.body(Mono.just(arrivalNotificationRequest), ArrivalNotificationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		this.webTestClient
+			.delete()
+			.uri("/guests/{name}", TEST_GUEST)
+			.exchange()
+			.expectStatus()
+			.isNoContent();
+		// then
+		val changes = new ArrayList<ServerSentEvent<String>>();
+		while (changes.size() < 3) {
+			val event = events.next();
+			// other tests may be changing the guestlist too
+			if (event.event() != null && event.data().contains("\"" + TEST_GUEST + "\"")) {
+				changes.add(event);
+			}
+		}
+		assertEquals(List.of("booked", "arrived", "left"), changes.stream().map(ServerSentEvent::event).collect(Collectors.toList()));
+		assertTrue(changes.get(1).data().contains("\"accompanying_guests\":\"" + SUCCESSFUL_ACCOMPANYING_NUMBER + "\""));
+		assertTrue(sequence(changes.get(0).id()) > sequence(snapshot.id()));
+	}
+
+    @Test
+    void given_AClientMissedSomeChanges_when_ItReconnectsWithTheLastEventId_then_OnlyTheChangesItMissedAreSent () {
+		// given
+		val lastEventId = this.webTestClient
+			.get()
+			.uri("/events")
+			.header(ACCEPT, TEXT_EVENT_STREAM_VALUE)
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+			.getResponseBody()
+			.blockFirst(Duration.ofSeconds(10))
+			.id();
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.body(Mono.just(reservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		// when
+		val events = this.webTestClient
+			.get()
+			.uri("/events")
+			.header(ACCEPT, TEXT_EVENT_STREAM_VALUE)
+			.header("Last-Event-ID", lastEventId)
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+			.getResponseBody()
+			.timeout(Duration.ofSeconds(10))
+			.toIterable()
+			.iterator();
+		// then
+		var event = events.next();
+		while (!event.data().contains("\"" + TEST_GUEST + "\"")) {
+			// other tests may be changing the guestlist too
+			assertNotEquals("snapshot", event.event());
+			event = events.next();
+		}
+		assertEquals("booked", event.event());
+		assertTrue(sequence(event.id()) > sequence(lastEventId));
+	}
+
+    @Test
+    void given_AGuestHasBooked_when_AClientSubscribesToTheEvents_then_TheSnapshotHasTheirBooking () {
+		// given
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.body(Mono.just(reservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isOk();
+		// when
+		val snapshot = this.webTestClient
+			.get()
+			.uri("/events")
+			.header(ACCEPT, TEXT_EVENT_STREAM_VALUE)
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+			.getResponseBody()
+			.blockFirst(Duration.ofSeconds(10));
+		// then
+		assertEquals("snapshot", snapshot.event());
+		assertTrue(snapshot.data().contains("\"guest_list\":["));
+		assertTrue(snapshot.data().contains("{\"name\":\"" + TEST_GUEST + "\",\"table\":"));
+	}
+
+    // the sequence number in an event id
+    private static long sequence(String id) {
+        return Long.parseLong(id.substring(id.lastIndexOf('-') + 1));
+    }
+
+/*************\
+ * Metrics   *
+\*************/
+
+    @Test
+    void given_ABookingHasBeenRejected_when_TheMetricsAreScraped_then_TheRejectionAndTheUseCaseTimersAreReported () {
+		// given
+		this.webTestClient
+			.post()
+			.uri("/guest_list/{name}", TEST_GUEST)
+			.header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+			.body(Mono.just(invalidReservationRequest), ReservationRequest.class)
+			.exchange()
+			.expectStatus()
+			.isEqualTo(HttpStatus.CONFLICT);
+		// when
+		this.webTestClient
+			.mutate()
+			.codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
+			.build()
+			.get()
+			.uri("/actuator/prometheus")
+			.exchange()
+		// then
+			.expectStatus()
+			.isOk()
+			.expectBody(String.class)
+			.value(metrics -> {
+				assertTrue(metrics.contains("guestlist_rejections_total{reason=\"TABLE_CAPACITY_EXCEEDED\",}"));
+				assertTrue(metrics.contains("guestlist_usecase_seconds_bucket{class=\"list.guest.usecase.GuestlistService\",exception=\"GuestListException\",method=\"bookTable\""));
+				assertTrue(metrics.contains("spring_data_repository_invocations_seconds"));
+				assertTrue(metrics.contains("guestlist_seats_empty "));
+				assertTrue(metrics.contains("guestlist_guests_present "));
+				assertTrue(metrics.contains("hikaricp_connections_active{pool="));
+			});
+	}
+
 }
@@ -0,0 +1,119 @@
+/***************************\
+   Load Tests
+\***************************/
+package list.guest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import list.guest.adapter.persistence.TableDb;
+import list.guest.adapter.persistence.TableRepository;
+import lombok.val;
+
+/**
+ * Compares the booking and check-in latencies against MySQL with and without the jdbc-tuning profile.
+ * Run with {@code mvn -Pload test} while MySQL is up, e.g. {@code docker-compose up mysql};
+ * skipped when it cannot be reached.
+ */
+@Tag("load")
+public class PersistenceTuningLoadTests {
+
+    private static final String HOST = System.getenv().getOrDefault("MYSQL_DATABASE", "127.0.0.1");
+    private static final int FIRST_TABLE = 50000;
+    private static final int CONCURRENCY = 20;
+    private static final int WARMUP_GUESTS = 500;
+    private static final int GUESTS = 2000;
+
+    @BeforeAll
+    static void mysqlIsUp() {
+        try (val socket = new Socket()) {
+            socket.connect(new InetSocketAddress(HOST, 3306), 1000);
+        } catch (IOException e) {
+            assumeTrue(false, "MySQL is not reachable at " + HOST + ":3306");
+        }
+    }
+
+    @Test
+    void given_MySQL_when_TheJdbcTuningProfileIsActive_then_BookingsAndCheckInsAreFaster () throws Exception {
+        // given
+        val plain = latencies("prod");
+        // when
+        val tuned = latencies("prod", "jdbc-tuning");
+        // then
+        assertTrue(tuned[0] < plain[0], "booking p50");
+        assertTrue(tuned[2] < plain[2], "check-in p50");
+    }
+
+    /**
+     * @return  the p50 and p99 of the booking latencies followed by those of the check-in latencies, in milliseconds
+     */
+    private double[] latencies(String... profiles) throws Exception {
+        val builder = new SpringApplicationBuilder(MainApplication.class)
+            .profiles(profiles)
+            .properties(
+                "server.port=0",
+                "logging.level.root=WARN");
+        try (ConfigurableApplicationContext context = builder.run()) {
+            val jdbcTemplate = context.getBean(JdbcTemplate.class);
+            clear(jdbcTemplate);
+            context.getBean(TableRepository.class).saveAll(
+                IntStream.range(FIRST_TABLE, FIRST_TABLE + WARMUP_GUESTS + GUESTS)
+                    .mapToObj(tableNumber -> TableDb.of(tableNumber, 10))
+                    .collect(toList()));
+            val baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            val client = new LoadClient(CONCURRENCY);
+            try {
+                // warm up the statement caches and the JIT on guests of their own
+                book(client, baseUrl, 0, WARMUP_GUESTS);
+                checkIn(client, baseUrl, 0, WARMUP_GUESTS);
+                val bookings = book(client, baseUrl, WARMUP_GUESTS, GUESTS);
+                val checkIns = checkIn(client, baseUrl, WARMUP_GUESTS, GUESTS);
+                val result = new double[] {
+                    LoadClient.percentile(bookings, 0.5), LoadClient.percentile(bookings, 0.99),
+                    LoadClient.percentile(checkIns, 0.5), LoadClient.percentile(checkIns, 0.99)};
+                System.out.printf("%s: booking p50 %.2f ms, p99 %.2f ms; check-in p50 %.2f ms, p99 %.2f ms%n",
+                    String.join(",", profiles), result[0], result[1], result[2], result[3]);
+                return result;
+            } finally {
+                clear(jdbcTemplate);
+            }
+        }
+    }
+
+    private static long[] book(LoadClient client, String baseUrl, int first, int count) throws InterruptedException {
+        return client.send(count, i -> HttpRequest.newBuilder(URI.create(baseUrl + "/guest_list/load-" + (first + i)))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(
+                "{\"table\": \"" + (FIRST_TABLE + first + i) + "\", \"accompanying_guests\": \"3\"}"))
+            .build(), 200);
+    }
+
+    private static long[] checkIn(LoadClient client, String baseUrl, int first, int count) throws InterruptedException {
+        return client.send(count, i -> HttpRequest.newBuilder(URI.create(baseUrl + "/guests/load-" + (first + i)))
+            .header("Content-Type", "application/json")
+            .PUT(HttpRequest.BodyPublishers.ofString("{\"accompanying_guests\": \"3\"}"))
+            .build(), 200);
+    }
+
+    private static void clear(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM arrived_guest_db WHERE name LIKE 'load-%'");
+        jdbcTemplate.update("DELETE FROM reservation_db WHERE name LIKE 'load-%'");
+        jdbcTemplate.update("DELETE FROM table_db WHERE table_number >= ?", FIRST_TABLE);
+    }
+}
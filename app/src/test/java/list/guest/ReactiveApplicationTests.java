@@ -0,0 +1,310 @@
+/***************************\
+   Acceptance Tests
+\***************************/
+package list.guest;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import list.guest.adapter.controller.ErrorMessages;
+import list.guest.adapter.controller.IdempotentRequests;
+import list.guest.adapter.controller.dto.ArrivalNotificationRequest;
+import list.guest.adapter.controller.dto.ReservationRequest;
+import list.guest.adapter.controller.dto.ReservationResponse;
+import list.guest.adapter.persistence.ArrivedGuestRepository;
+import list.guest.adapter.persistence.ReservationRepository;
+import list.guest.adapter.persistence.TableDb;
+import list.guest.adapter.persistence.TableRepository;
+import list.guest.usecase.ChangeLog;
+import list.guest.usecase.search.GuestNameIndex;
+import list.guest.usecase.seating.FreeTables;
+import list.guest.usecase.seating.SeatCounter;
+import lombok.val;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.http.HttpHeaders.*;
+import static org.springframework.http.MediaType.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The same API served by WebFlux and R2DBC under the reactive profile
+ */
+@SpringBootTest(
+    classes = MainApplication.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+@TestInstance(Lifecycle.PER_CLASS)
+class ReactiveApplicationTests {
+
+    private static final String TEST_GUEST = "Reactive Test Guest";
+    private static final int TABLE_NUMBER = 99990;
+    private static final int TABLE_CAPACITY = 10;
+    private static final int SUCCESSFUL_ACCOMPANYING_NUMBER = 8;
+    private static final int FAILED_ACCOMPANYING_NUMBER = 13;
+
+    private TableDb testTable;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ArrivedGuestRepository arrivedGuestRepository;
+
+    @BeforeAll
+    void setup() {
+        // save a table for tests
+        this.testTable = tableRepository.save(TableDb.of(TABLE_NUMBER, TABLE_CAPACITY));
+    }
+
+    @AfterAll
+    void teardown() {
+        // remove table used for tests
+        tableRepository.delete(this.testTable);
+    }
+
+    @AfterEach
+    void afterEachTest() {
+        // clean up reservation made
+        reservationRepository.findByName(TEST_GUEST)
+            .ifPresent(reservation -> reservationRepository.delete(reservation));
+        // clean up guest arrival
+        arrivedGuestRepository.findByName(TEST_GUEST)
+            .ifPresent(arrival -> arrivedGuestRepository.delete(arrival));
+    }
+
+    @Test
+    void given_TheReactiveProfile_when_TheApplicationStarts_then_NoneOfTheStateKeptByTheServletUseCasesIsCreated () {
+        // when
+        val beans = this.applicationContext.getBeanNamesForType(SeatCounter.class).length
+            + this.applicationContext.getBeanNamesForType(FreeTables.class).length
+            + this.applicationContext.getBeanNamesForType(GuestNameIndex.class).length
+            + this.applicationContext.getBeanNamesForType(ChangeLog.class).length;
+        // then
+        assertEquals(0, beans);
+    }
+
+    @Test
+    void given_TableHasSufficientSpace_when_GuestRequestToBookATable_then_GuestIsAddedToTheGuestlist () {
+        // when
+        book(SUCCESSFUL_ACCOMPANYING_NUMBER)
+        // then
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.name").isEqualTo(TEST_GUEST);
+        this.webTestClient
+            .get()
+            .uri("/guest_list")
+            .header(ACCEPT, APPLICATION_JSON_VALUE)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$[?(@.name == '%s')].table", TEST_GUEST).isEqualTo(String.valueOf(TABLE_NUMBER));
+    }
+
+    @Test
+    void given_TableDoesNotHaveSufficientSpace_when_GuestRequestToBookATable_then_AnErrorIsThrown () {
+        // when
+        book(FAILED_ACCOMPANYING_NUMBER)
+        // then
+            .expectStatus()
+            .isEqualTo(HttpStatus.CONFLICT)
+            .expectBody()
+            .jsonPath("$.reason").isEqualTo(ErrorMessages.TABLE_CAPACITY_EXCEEDED.value());
+    }
+
+    @Test
+    void given_NoTableIsRequested_when_GuestRequestToBookATable_then_AFreeTableThatFitsIsBooked () {
+        // when
+        val table = this.webTestClient
+            .post()
+            .uri("/guest_list/{name}", TEST_GUEST)
+            .header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+            .header(ACCEPT, APPLICATION_JSON_VALUE)
+            .body(Mono.just(new ReservationRequest(null, String.valueOf(SUCCESSFUL_ACCOMPANYING_NUMBER))), ReservationRequest.class)
+            .exchange()
+        // then
+            .expectStatus()
+            .isOk()
+            .expectBody(ReservationResponse.class)
+            .returnResult()
+            .getResponseBody()
+            .getTable();
+        val reservation = reservationRepository.findByName(TEST_GUEST).get();
+        assertEquals(table, reservation.getTableNumber().toString());
+        assertTrue(tableRepository.findByTableNumber(reservation.getTableNumber()).get().getTableCapacity() > SUCCESSFUL_ACCOMPANYING_NUMBER);
+    }
+
+    @Test
+    void given_GuestHasBooked_when_GuestArrivesAndLeaves_then_TheSeatsAreTakenAndReleased () {
+        // given
+        book(SUCCESSFUL_ACCOMPANYING_NUMBER)
+            .expectStatus()
+            .isOk();
+        // when
+        this.webTestClient
+            .put()
+            .uri("/guests/{name}", TEST_GUEST)
+            .header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+            .header(ACCEPT, APPLICATION_JSON_VALUE)
+            .body(Mono.just(new ArrivalNotificationRequest(String.valueOf(SUCCESSFUL_ACCOMPANYING_NUMBER))), ArrivalNotificationRequest.class)
+            .exchange()
+        // then
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.name").isEqualTo(TEST_GUEST);
+        seatsEmpty(TABLE_CAPACITY - SUCCESSFUL_ACCOMPANYING_NUMBER - 1);
+        // and when
+        this.webTestClient
+            .delete()
+            .uri("/guests/{name}", TEST_GUEST)
+            .exchange()
+        // then
+            .expectStatus()
+            .isNoContent();
+        seatsEmpty(TABLE_CAPACITY);
+    }
+
+    @Test
+    void given_GuestHasNotArrived_when_GuestLeaves_then_AnErrorIsThrown () {
+        // given
+        book(SUCCESSFUL_ACCOMPANYING_NUMBER)
+            .expectStatus()
+            .isOk();
+        // when
+        this.webTestClient
+            .delete()
+            .uri("/guests/{name}", TEST_GUEST)
+            .exchange()
+        // then
+            .expectStatus()
+            .isEqualTo(HttpStatus.CONFLICT)
+            .expectBody()
+            .jsonPath("$.reason").isEqualTo(ErrorMessages.GUEST_NOT_CHECKED_IN.value());
+    }
+
+    @Test
+    void given_GuestHasArrived_when_TheScannerRetriesWithTheSameKey_then_TheOriginalResponseIsReplayed () {
+        // given
+        book(SUCCESSFUL_ACCOMPANYING_NUMBER)
+            .expectStatus()
+            .isOk();
+        val idempotencyKey = UUID.randomUUID().toString();
+        for (int scan = 0; scan < 2; scan++) {
+            // when
+            this.webTestClient
+                .put()
+                .uri("/guests/{name}", TEST_GUEST)
+                .header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+                .header(ACCEPT, APPLICATION_JSON_VALUE)
+                .header(IdempotentRequests.HEADER, idempotencyKey)
+                .body(Mono.just(new ArrivalNotificationRequest(String.valueOf(SUCCESSFUL_ACCOMPANYING_NUMBER))), ArrivalNotificationRequest.class)
+                .exchange()
+            // then
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo(TEST_GUEST);
+        }
+        seatsEmpty(TABLE_CAPACITY - SUCCESSFUL_ACCOMPANYING_NUMBER - 1);
+    }
+
+    @Test
+    void given_TheGuestlistIsRequestedAsNdjson_when_ItIsStreamed_then_EveryGuestIsOnItsOwnLine () {
+        // given
+        book(SUCCESSFUL_ACCOMPANYING_NUMBER)
+            .expectStatus()
+            .isOk();
+        // when
+        val lines = this.webTestClient
+            .get()
+            .uri("/guest_list")
+            .header(ACCEPT, APPLICATION_NDJSON_VALUE)
+            .exchange()
+        // then
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentTypeCompatibleWith(APPLICATION_NDJSON)
+            .expectBody(String.class)
+            .returnResult()
+            .getResponseBody()
+            .split("\n");
+        assertEquals(reservationRepository.count(), lines.length);
+        assertTrue(lines[0].startsWith("{"));
+    }
+
+    @Test
+    void given_GuestHasBooked_when_TheTablesAreRequested_then_TheirTableIsNoLongerFree () {
+        // given
+        book(SUCCESSFUL_ACCOMPANYING_NUMBER)
+            .expectStatus()
+            .isOk();
+        // when
+        this.webTestClient
+            .get()
+            .uri("/tables")
+            .header(ACCEPT, APPLICATION_JSON_VALUE)
+            .exchange()
+        // then
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$[?(@.table == '%s')].reserved_party_size", TABLE_NUMBER).isEqualTo(String.valueOf(SUCCESSFUL_ACCOMPANYING_NUMBER + 1))
+            .jsonPath("$[?(@.table == '%s')].seats_empty", TABLE_NUMBER).isEqualTo(String.valueOf(TABLE_CAPACITY));
+        this.webTestClient
+            .get()
+            .uri("/tables?party_size={size}", TABLE_CAPACITY)
+            .header(ACCEPT, APPLICATION_JSON_VALUE)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$[?(@.table == '%s')]", TABLE_NUMBER).doesNotExist();
+    }
+
+    private WebTestClient.ResponseSpec book(int accompanyingNumber) {
+        return this.webTestClient
+            .post()
+            .uri("/guest_list/{name}", TEST_GUEST)
+            .header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+            .header(ACCEPT, APPLICATION_JSON_VALUE)
+            .body(Mono.just(new ReservationRequest(String.valueOf(TABLE_NUMBER), String.valueOf(accompanyingNumber))), ReservationRequest.class)
+            .exchange();
+    }
+
+    private void seatsEmpty(int expected) {
+        this.webTestClient
+            .get()
+            .uri("/seats_empty/{table}", TABLE_NUMBER)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.seats_empty").isEqualTo(String.valueOf(expected));
+    }
+}
@@ -0,0 +1,114 @@
+/***************************\
+   Load Tests
+\***************************/
+package list.guest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import lombok.val;
+
+/**
+ * Compares the throughput of the platform and virtual thread models when every request blocks on a
+ * database that is a round trip away, as MySQL is in production, rather than in memory.
+ * Run with {@code mvn -Pload test}; the virtual thread half needs Java 21 or later.
+ */
+@Tag("load")
+public class VirtualThreadsLoadTests {
+
+    private static final int TOMCAT_THREADS = 10;
+    private static final int POOL_SIZE = 50;
+    private static final long QUERY_LATENCY_MS = 50;
+    private static final int CONCURRENCY = 200;
+    private static final int WARMUP_REQUESTS = 500;
+    private static final int REQUESTS = 2000;
+
+    @Test
+    void given_RequestsBlockOnTheDatabase_when_TheyRunOnVirtualThreads_then_TheThreadPoolNoLongerCapsThroughput () throws Exception {
+        // given
+        val platform = throughput(false);
+        System.out.printf("Platform threads (%d): %.0f requests/s%n", TOMCAT_THREADS, platform);
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21 or later");
+        // when
+        val virtual = throughput(true);
+        System.out.printf("Virtual threads: %.0f requests/s (x%.1f)%n", virtual, virtual / platform);
+        // then
+        assertTrue(virtual > platform);
+    }
+
+    /**
+     * @return  the requests per second served by a fresh instance
+     */
+    private double throughput(boolean virtualThreads) throws Exception {
+        val builder = new SpringApplicationBuilder(MainApplication.class)
+            .properties(
+                "server.port=0",
+                "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "logging.level.root=WARN")
+            .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new SlowDatabase()));
+        if (virtualThreads) {
+            builder.profiles("virtual-threads");
+        }
+        try (ConfigurableApplicationContext context = builder.run()) {
+            val request = HttpRequest.newBuilder(URI.create(
+                "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/guest_list?limit=20")).GET().build();
+            val client = new LoadClient(CONCURRENCY);
+            client.send(WARMUP_REQUESTS, i -> request, 200);
+            val start = System.nanoTime();
+            client.send(REQUESTS, i -> request, 200);
+            return REQUESTS * 1e9 / (System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Holds the connection for {@link #QUERY_LATENCY_MS} on every statement executed, like a network round trip would
+     */
+    private static class SlowDatabase implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource)) {
+                return bean;
+            }
+            return proxy(DataSource.class, bean);
+        }
+
+        private static Object proxy(Class<?> type, Object target) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+                if (Statement.class.isAssignableFrom(method.getDeclaringClass()) && method.getName().startsWith("execute")) {
+                    Thread.sleep(QUERY_LATENCY_MS);
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Connection && method.getReturnType().equals(Connection.class)) {
+                    return proxy(Connection.class, result);
+                }
+                if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                    return proxy(method.getReturnType(), result);
+                }
+                return result;
+            });
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/***************************\
+   Unit Tests
+\***************************/
+package list.guest.usecase;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static java.util.stream.Collectors.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import list.guest.dto.Change;
+import list.guest.dto.Guest;
+import list.guest.dto.GuestlistEvent;
+import lombok.val;
+
+public class ChangeLogTests {
+
+    private static final int CAPACITY = 4;
+    private static final int SEATS_EMPTY = 10;
+
+    private ChangeLog changeLog;
+
+    @BeforeEach
+    void setup() {
+        this.changeLog = new ChangeLog(CAPACITY);
+    }
+
+    @Test
+    void given_SomeChanges_when_TheChangesSinceOneOfThemAreRequested_then_TheLaterOnesAreReturnedInOrder () {
+        // given
+        for (int guest = 1; guest <= 3; guest++) {
+            this.changeLog.append(GuestlistEvent.left("Guest " + guest), SEATS_EMPTY);
+        }
+        // when
+        val changes = this.changeLog.since(1).get();
+        // then
+        assertEquals(3, this.changeLog.getLastSequence());
+        assertEquals(
+            List.of(2L, 3L),
+            changes.stream().map(Change::getSequence).collect(toList()));
+        assertEquals("Guest 3", changes.get(1).getEvent().getName());
+        assertTrue(this.changeLog.since(3).get().isEmpty());
+    }
+
+    @Test
+    void given_TheLogHasWrappedAround_when_TheChangesSinceADroppedOneAreRequested_then_NoneAreReturned () {
+        // given
+        for (int guest = 1; guest <= CAPACITY + 2; guest++) {
+            this.changeLog.append(GuestlistEvent.left("Guest " + guest), SEATS_EMPTY);
+        }
+        // when
+        val changes = this.changeLog.since(1);
+        // then
+        assertTrue(changes.isEmpty());
+        assertEquals(CAPACITY, this.changeLog.since(2).get().size());
+        assertEquals("Guest 3", this.changeLog.since(2).get().get(0).getEvent().getName());
+    }
+
+    @Test
+    void given_AVersionNotReachedYet_when_TheChangesSinceItAreRequested_then_NoneAreReturned () {
+        // given
+        this.changeLog.append(GuestlistEvent.left("Guest 1"), SEATS_EMPTY);
+        // when
+        val changes = this.changeLog.since(2);
+        // then
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    void given_ABookingAndADeparture_when_TheLastSequencesAreRequested_then_EachListHasItsOwn () {
+        // given
+        this.changeLog.append(GuestlistEvent.booked(Guest.of("Guest 1", 1, 0)), SEATS_EMPTY);
+        this.changeLog.append(GuestlistEvent.left("Guest 2"), SEATS_EMPTY);
+        // when
+        val lastBooking = this.changeLog.getLastBookingSequence();
+        val lastAttendance = this.changeLog.getLastAttendanceSequence();
+        // then
+        assertEquals(1, lastBooking);
+        assertEquals(2, lastAttendance);
+        assertEquals(2, this.changeLog.getLastSequence());
+    }
+
+    @Test
+    void given_SomeChanges_when_TheChangesSinceATimeAreRequested_then_TheOnesMadeAfterItAreReturned () throws InterruptedException {
+        // given
+        this.changeLog.append(GuestlistEvent.left("Guest 1"), SEATS_EMPTY);
+        val time = this.changeLog.since(0).get().get(0).getTime();
+        Thread.sleep(2);
+        this.changeLog.append(GuestlistEvent.left("Guest 2"), SEATS_EMPTY);
+        // when
+        val changes = this.changeLog.since(time).get();
+        // then
+        assertEquals(1, changes.size());
+        assertEquals("Guest 2", changes.get(0).getEvent().getName());
+        assertEquals(2, this.changeLog.since(LocalDateTime.MIN).get().size());
+    }
+}
@@ -5,6 +5,7 @@ package list.guest.usecase;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static java.util.stream.Collectors.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -12,6 +13,9 @@ import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
 
 import list.guest.adapter.persistence.ArrivedGuestDb;
 import list.guest.adapter.persistence.ArrivedGuestRepository;
@@ -19,8 +23,14 @@ import list.guest.adapter.persistence.ReservationDb;
 import list.guest.adapter.persistence.ReservationRepository;
 import list.guest.adapter.persistence.TableDb;
 import list.guest.adapter.persistence.TableRepository;
+import list.guest.dto.BookingResult;
+import list.guest.dto.Guest;
+import list.guest.dto.GuestlistEvent;
 import list.guest.usecase.exceptions.GuestListException;
 import list.guest.usecase.exceptions.GuestListException.ErrorType;
+import list.guest.usecase.search.GuestNameIndex;
+import list.guest.usecase.seating.FreeTables;
+import list.guest.usecase.seating.SeatCounter;
 import lombok.val;
 
 public class GuestlistServiceTests {
@@ -35,11 +45,16 @@ public class GuestlistServiceTests {
     private static final int FAILED_ACCOMPANYING_NUMBER = 13;
     private static final LocalDateTime ARRIVAL_TIME = LocalDateTime.parse("2022-05-04T20:20:20");
     private static final int SEATS_EMPTY = 42;
+    private static final int CHANGES_KEPT = 100;
 
     private GuestlistService service;
     private TableRepository tableRepository;
     private ReservationRepository reservationRepository;
     private ArrivedGuestRepository arrivedGuestRepository;
+    private SeatCounter seatCounter;
+    private FreeTables freeTables;
+    private GuestNameIndex guestNameIndex;
+    private ApplicationEventPublisher eventPublisher;
     private TableDb someTable;
     private List<ReservationDb> reservedGuestlist;
     private ReservationDb validReservation;
@@ -48,11 +63,17 @@ public class GuestlistServiceTests {
     private ArrivedGuestDb arrivedGuestDB;
 
     @BeforeEach
-    void setup() {
+    void setup() throws GuestListException {
         this.tableRepository = mock(TableRepository.class);
         this.reservationRepository = mock(ReservationRepository.class);
         this.arrivedGuestRepository = mock(ArrivedGuestRepository.class);
-        this.service = new GuestlistService(this.tableRepository, this.reservationRepository, this.arrivedGuestRepository);
+        this.seatCounter = mock(SeatCounter.class);
+        when(this.seatCounter.counting(any()))
+            .thenAnswer(invocation -> invocation.<SeatCounter.Change<?>>getArgument(0).make());
+        this.freeTables = mock(FreeTables.class);
+        this.guestNameIndex = mock(GuestNameIndex.class);
+        this.eventPublisher = mock(ApplicationEventPublisher.class);
+        this.service = new GuestlistService(this.tableRepository, this.reservationRepository, this.arrivedGuestRepository, Optional.empty(), this.seatCounter, this.freeTables, this.guestNameIndex, new ChangeLog(CHANGES_KEPT), this.eventPublisher);
         this.someTable = TableDb.of(TABLE_NUMBER, TABLE_CAPACITY);
         this.reservedGuestlist = List.of(
             ReservationDb.of("Guest 1", 10, 5),
@@ -118,6 +139,43 @@ public class GuestlistServiceTests {
         assertEquals(ErrorType.TABLE_NOT_FOUND, exception.getErrorType());
     }
 
+    @Test
+    void given_ABookingIsAcceptedAndAnotherRejected_when_TheVersionIsRead_then_OnlyTheAcceptedOneHasBumpedIt () throws GuestListException {
+        // given
+        when(tableRepository.findByTableNumber(eq(TABLE_NUMBER)))
+            .thenReturn(Optional.of(this.someTable));
+        val before = this.service.getVersion();
+        this.service.bookTable(GUEST_NAME, TABLE_NUMBER, SUCCESSFUL_ACCOMPANYING_NUMBER);
+        assertThrows(
+            GuestListException.class,
+            () -> this.service.bookTable(UNKNOWN_GUEST, TABLE_NUMBER, FAILED_ACCOMPANYING_NUMBER));
+        // when
+        val after = this.service.getVersion();
+        // then
+        assertEquals(before + 1, after);
+    }
+
+    @Test
+    void given_TableIsNotFound_when_GuestsRequestToBookATableRepeatedly_then_TheSameStacklessErrorIsThrown () {
+        // given
+        when(tableRepository.findByTableNumber(eq(NOT_FOUND_TABLE_NUMBER)))
+            .thenReturn(Optional.empty());
+        // when
+        val first = assertThrows(
+            GuestListException.class,
+            () -> {
+                this.service.bookTable(GUEST_NAME, NOT_FOUND_TABLE_NUMBER, SUCCESSFUL_ACCOMPANYING_NUMBER);
+            });
+        val second = assertThrows(
+            GuestListException.class,
+            () -> {
+                this.service.bookTable(UNKNOWN_GUEST, NOT_FOUND_TABLE_NUMBER, SUCCESSFUL_ACCOMPANYING_NUMBER);
+            });
+        // then
+        assertSame(first, second);
+        assertEquals(0, first.getStackTrace().length);
+    }
+
     @Test
     void given_TableHasAlreadyBeenReserved_when_GuestRequestToBookATable_then_AnErrorIsThrown () {
         // fail("Not yet implemented");
@@ -156,12 +214,194 @@ public class GuestlistServiceTests {
         assertEquals(ErrorType.GUEST_BOOKED_ALREADY, exception.getErrorType());
     }
 
+    @Test
+    void given_TheSmallestFreeTableIsBookedMeanwhile_when_GuestRequestToBookAnyTable_then_TheNextOneIsBooked () {
+        // given
+        val otherTable = TableDb.of(TABLE_NUMBER + 1, TABLE_CAPACITY);
+        when(freeTables.take(SUCCESSFUL_ACCOMPANYING_NUMBER + 1))
+            .thenReturn(Optional.of(TABLE_NUMBER), Optional.of(TABLE_NUMBER + 1));
+        when(tableRepository.findByTableNumber(eq(TABLE_NUMBER)))
+            .thenReturn(Optional.of(this.someTable));
+        when(tableRepository.findByTableNumber(eq(TABLE_NUMBER + 1)))
+            .thenReturn(Optional.of(otherTable));
+        when(reservationRepository.findByTableNumber(eq(TABLE_NUMBER)))
+            .thenReturn(Optional.of(ReservationDb.of(UNKNOWN_GUEST, TABLE_NUMBER, SUCCESSFUL_ACCOMPANYING_NUMBER)));
+        try {
+            // when
+            val tableNumber = this.service.bookAnyTable(GUEST_NAME, SUCCESSFUL_ACCOMPANYING_NUMBER);
+            // then
+            assertEquals(TABLE_NUMBER + 1, tableNumber);
+            verify(freeTables, times(1)).booked(TABLE_NUMBER + 1);
+            verify(freeTables, never()).released(anyInt());
+        } catch (GuestListException e) {
+            fail(e.getErrorType().toString());
+        }
+    }
+
+    @Test
+    void given_TheGuestHasAlreadyAReservation_when_GuestRequestToBookAnyTable_then_TheTableIsHandedBack () {
+        // given
+        when(freeTables.take(SUCCESSFUL_ACCOMPANYING_NUMBER + 1))
+            .thenReturn(Optional.of(TABLE_NUMBER));
+        when(tableRepository.findByTableNumber(eq(TABLE_NUMBER)))
+            .thenReturn(Optional.of(this.someTable));
+        when(reservationRepository.findByName(eq(GUEST_NAME)))
+            .thenReturn(Optional.of(this.validReservation));
+        // when
+        val exception = assertThrows(
+            GuestListException.class,
+            () -> {
+                this.service.bookAnyTable(GUEST_NAME, SUCCESSFUL_ACCOMPANYING_NUMBER);
+            });
+        // then
+        assertEquals(ErrorType.GUEST_BOOKED_ALREADY, exception.getErrorType());
+        verify(freeTables, times(1)).released(TABLE_NUMBER);
+    }
+
+    @Test
+    void given_TheGuestIsBookedConcurrently_when_GuestRequestToBookAnyTable_then_TheTableIsHandedBack () {
+        // given
+        when(freeTables.take(SUCCESSFUL_ACCOMPANYING_NUMBER + 1))
+            .thenReturn(Optional.of(TABLE_NUMBER));
+        when(tableRepository.findByTableNumber(eq(TABLE_NUMBER)))
+            .thenReturn(Optional.of(this.someTable));
+        when(reservationRepository.findByName(eq(GUEST_NAME)))
+            .thenReturn(Optional.empty(), Optional.of(this.validReservation));
+        when(reservationRepository.save(any()))
+            .thenThrow(new DuplicateKeyException("reservation_db.name"));
+        // when
+        val exception = assertThrows(
+            GuestListException.class,
+            () -> {
+                this.service.bookAnyTable(GUEST_NAME, SUCCESSFUL_ACCOMPANYING_NUMBER);
+            });
+        // then
+        assertEquals(ErrorType.GUEST_BOOKED_ALREADY, exception.getErrorType());
+        verify(freeTables, times(1)).released(TABLE_NUMBER);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void given_TheSmallestFreeTableIsBookedConcurrently_when_GuestRequestToBookAnyTable_then_TheNextOneIsBooked () {
+        // given
+        val otherTable = TableDb.of(TABLE_NUMBER + 1, TABLE_CAPACITY);
+        when(freeTables.take(SUCCESSFUL_ACCOMPANYING_NUMBER + 1))
+            .thenReturn(Optional.of(TABLE_NUMBER), Optional.of(TABLE_NUMBER + 1));
+        when(tableRepository.findByTableNumber(eq(TABLE_NUMBER)))
+            .thenReturn(Optional.of(this.someTable));
+        when(tableRepository.findByTableNumber(eq(TABLE_NUMBER + 1)))
+            .thenReturn(Optional.of(otherTable));
+        when(reservationRepository.save(any()))
+            .thenThrow(new DuplicateKeyException("reservation_db.table_number"))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        try {
+            // when
+            val tableNumber = this.service.bookAnyTable(GUEST_NAME, SUCCESSFUL_ACCOMPANYING_NUMBER);
+            // then
+            assertEquals(TABLE_NUMBER + 1, tableNumber);
+            verify(freeTables, times(1)).booked(TABLE_NUMBER + 1);
+            verify(freeTables, never()).released(anyInt());
+        } catch (GuestListException e) {
+            fail(e.getErrorType().toString());
+        }
+    }
+
+    @Test
+    void given_TheDatabaseFails_when_GuestRequestToBookAnyTable_then_TheTableIsHandedBack () {
+        // given
+        when(freeTables.take(SUCCESSFUL_ACCOMPANYING_NUMBER + 1))
+            .thenReturn(Optional.of(TABLE_NUMBER));
+        when(tableRepository.findByTableNumber(eq(TABLE_NUMBER)))
+            .thenReturn(Optional.of(this.someTable));
+        when(reservationRepository.save(any()))
+            .thenThrow(new DataAccessResourceFailureException("connection lost"));
+        // when
+        assertThrows(
+            DataAccessResourceFailureException.class,
+            () -> {
+                this.service.bookAnyTable(GUEST_NAME, SUCCESSFUL_ACCOMPANYING_NUMBER);
+            });
+        // then
+        verify(freeTables, times(1)).released(TABLE_NUMBER);
+    }
+
+    @Test
+    void given_NoFreeTableFitsTheParty_when_GuestRequestToBookAnyTable_then_AnErrorIsThrown () {
+        // given
+        when(freeTables.take(anyInt()))
+            .thenReturn(Optional.empty());
+        // when
+        val exception = assertThrows(
+            GuestListException.class,
+            () -> {
+                this.service.bookAnyTable(GUEST_NAME, FAILED_ACCOMPANYING_NUMBER);
+            });
+        // then
+        assertEquals(ErrorType.NO_TABLE_AVAILABLE, exception.getErrorType());
+        verifyNoInteractions(reservationRepository);
+    }
+
+    @Test
+    void given_ABatchOfGuests_when_TheyRequestToBookTables_then_OnlyTheValidBookingsAreInserted () {
+        // given
+        when(tableRepository.findByTableNumberIn(any()))
+            .thenReturn(List.of(this.someTable));
+        val bookings = List.of(
+            Guest.of(GUEST_NAME, TABLE_NUMBER, SUCCESSFUL_ACCOMPANYING_NUMBER),
+            Guest.of(UNKNOWN_GUEST, TABLE_NUMBER, SUCCESSFUL_ACCOMPANYING_NUMBER),
+            Guest.of(UNKNOWN_GUEST, INVALID_TABLE_NUMBER, SUCCESSFUL_ACCOMPANYING_NUMBER));
+        // when
+        val results = this.service.bookTables(bookings);
+        // then
+        assertEquals(List.of(
+                BookingResult.booked(GUEST_NAME),
+                BookingResult.rejected(UNKNOWN_GUEST, ErrorType.TABLE_NOT_AVAILABLE),
+                BookingResult.rejected(UNKNOWN_GUEST, ErrorType.TABLE_NOT_FOUND)),
+            results);
+        verify(reservationRepository, times(1))
+            .insertAll(argThat(reservations ->
+                reservations.size() == 1 && reservations.get(0).getName().equals(GUEST_NAME)));
+    }
+
+    @Test
+    void given_AGuestInTheBatchIsBookedConcurrently_when_TheyRequestToBookTables_then_OnlyTheirBookingIsRejected () {
+        // given
+        val otherTable = TableDb.of(TABLE_NUMBER + 1, TABLE_CAPACITY);
+        when(tableRepository.findByTableNumberIn(any()))
+            .thenReturn(List.of(this.someTable, otherTable));
+        when(tableRepository.findByTableNumber(eq(TABLE_NUMBER)))
+            .thenReturn(Optional.of(this.someTable));
+        when(tableRepository.findByTableNumber(eq(TABLE_NUMBER + 1)))
+            .thenReturn(Optional.of(otherTable));
+        doThrow(new DuplicateKeyException("reservation_db.name"))
+            .when(reservationRepository).insertAll(any());
+        // booked between the batch's checks and its own check
+        when(reservationRepository.findByName(eq(GUEST_NAME)))
+            .thenReturn(Optional.empty(), Optional.of(this.validReservation));
+        when(reservationRepository.save(argThat(reservationDB -> reservationDB != null && reservationDB.getName().equals(GUEST_NAME))))
+            .thenThrow(new DuplicateKeyException("reservation_db.name"));
+        val bookings = List.of(
+            Guest.of(GUEST_NAME, TABLE_NUMBER, SUCCESSFUL_ACCOMPANYING_NUMBER),
+            Guest.of(UNKNOWN_GUEST, TABLE_NUMBER + 1, SUCCESSFUL_ACCOMPANYING_NUMBER));
+        // when
+        val results = this.service.bookTables(bookings);
+        // then
+        assertEquals(List.of(
+                BookingResult.rejected(GUEST_NAME, ErrorType.GUEST_BOOKED_ALREADY),
+                BookingResult.booked(UNKNOWN_GUEST)),
+            results);
+        verify(freeTables, times(1)).booked(TABLE_NUMBER + 1);
+        verify(freeTables, never()).booked(TABLE_NUMBER);
+    }
+
     @Test
     void when_GuestlistIsRequested_then_ListOfAllGuestsIsReturned () {
         // fail("Not yet implemented");
         // given
-        when(reservationRepository.findAll())
-            .thenReturn(this.reservedGuestlist);
+        when(reservationRepository.findGuests())
+            .thenReturn(this.reservedGuestlist.stream()
+                .map(ReservationDb::guest)
+                .collect(toList()));
         // when
         val guestlist = this.service.getGuestlist();
         // then
@@ -176,11 +416,18 @@ public class GuestlistServiceTests {
             .thenReturn(Optional.of(this.validReservation));
         when(tableRepository.findByTableNumber(eq(TABLE_NUMBER)))
             .thenReturn(Optional.of(this.someTable));
+        when(arrivedGuestRepository.checkIn(eq(GUEST_NAME), eq(SUCCESSFUL_ACCOMPANYING_NUMBER), any()))
+            .thenReturn(1);
         try {
             // when
             val guestName = this.service.checkGuestIn(GUEST_NAME, SUCCESSFUL_ACCOMPANYING_NUMBER);
             // then
             assertEquals(GUEST_NAME, guestName);
+            verify(seatCounter, times(1))
+                .guestArrived(TABLE_NUMBER, SUCCESSFUL_ACCOMPANYING_NUMBER + 1);
+            verify(eventPublisher, times(1))
+                .publishEvent(argThat((GuestlistEvent event) ->
+                    event.getType() == GuestlistEvent.Type.ARRIVED && event.getName().equals(GUEST_NAME)));
         }
         catch(GuestListException e) {
             fail(e.getErrorType().toString());
@@ -261,6 +508,25 @@ public class GuestlistServiceTests {
         assertEquals(ErrorType.GUEST_HAS_ALREADY_ARRIVED, exception.getErrorType());
     }
 
+    @Test
+    void given_TheGuestIsCheckedInConcurrently_when_GuestArrives_then_AnErrorIsThrown () {
+        // given
+        when(reservationRepository.findByName(eq(GUEST_NAME)))
+            .thenReturn(Optional.of(this.validReservation));
+        when(arrivedGuestRepository.checkIn(eq(GUEST_NAME), eq(SUCCESSFUL_ACCOMPANYING_NUMBER), any()))
+            .thenThrow(new DuplicateKeyException("arrived_guest_db.name"));
+        // when
+        val exception = assertThrows(
+            GuestListException.class, 
+            () -> {
+                this.service.checkGuestIn(GUEST_NAME, SUCCESSFUL_ACCOMPANYING_NUMBER);
+            });
+        // then
+        assertEquals(ErrorType.GUEST_HAS_ALREADY_ARRIVED, exception.getErrorType());
+        verify(seatCounter, never()).guestArrived(anyInt(), anyInt());
+        verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     void given_theGuestHasArrived_when_TheGuestLeaves_then_TheirEntourageLeaves () {
         // fail("Not yet implemented");
@@ -269,12 +535,18 @@ public class GuestlistServiceTests {
             .thenReturn(Optional.of(this.validReservation));
         when(arrivedGuestRepository.findByName(eq(GUEST_NAME)))
             .thenReturn(Optional.of(this.arrivedGuestDB));
+        when(arrivedGuestRepository.deleteByName(eq(GUEST_NAME)))
+            .thenReturn(1);
         try {    
             // when
             this.service.checkGuestOut(GUEST_NAME);
             // then
             verify(arrivedGuestRepository, times(1))
-                .delete(eq(this.arrivedGuestDB));
+                .deleteByName(eq(GUEST_NAME));
+            verify(seatCounter, times(1))
+                .guestLeft(TABLE_NUMBER, SUCCESSFUL_ACCOMPANYING_NUMBER + 1);
+            verify(eventPublisher, times(1))
+                .publishEvent(GuestlistEvent.left(GUEST_NAME));
         } catch (GuestListException e) {
             fail(e.getErrorType().toString());
         }
@@ -302,8 +574,10 @@ public class GuestlistServiceTests {
     void when_TheArrivedGuestsAreRequested_then_TheListOfAllArrivedGuestsIsReturned () {
         // fail("Not yet implemented");
         // given
-        when(arrivedGuestRepository.findAll())
-            .thenReturn(this.arrivedGuestsDB);
+        when(arrivedGuestRepository.findArrivedGuests())
+            .thenReturn(this.arrivedGuestsDB.stream()
+                .map(ArrivedGuestDb::arrival)
+                .collect(toList()));
         // when
         val guests = this.service.getArrivedGuests();
         // then
@@ -314,7 +588,7 @@ public class GuestlistServiceTests {
     void when_TheNumberOfSeatsEmptyIsRequested_then_TheAvailableSeatsAcrossAllTabesIsReturned () {
         // fail("Not yet implemented");
         // given
-        when(arrivedGuestRepository.countSeatsEmpty())
+        when(seatCounter.getSeatsEmpty())
             .thenReturn(SEATS_EMPTY);
         // when
         val seatsEmpty = this.service.getSeatsEmpty();
@@ -0,0 +1,121 @@
+/***************************\
+   Unit Tests
+\***************************/
+package list.guest.usecase.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static java.util.stream.Collectors.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.relational.core.conversion.MutableAggregateChange;
+import org.springframework.data.relational.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.relational.core.mapping.event.Identifier;
+
+import list.guest.adapter.persistence.ReservationDb;
+import list.guest.adapter.persistence.ReservationRepository;
+import list.guest.dto.Guest;
+import list.guest.dto.GuestlistEvent;
+import lombok.val;
+
+public class GuestNameIndexTests {
+
+    private static final List<Guest> GUESTS = List.of(
+        Guest.of("John Smith", 1, 2),
+        Guest.of("Johanna Smithers", 2, 3),
+        Guest.of("Mary Johnson", 3, 1),
+        Guest.of("José Álvarez", 4, 0),
+        Guest.of("Jon", 5, 4));
+    private static final int LIMIT = 10;
+
+    private GuestNameIndex guestNameIndex;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        val reservationRepository = mock(ReservationRepository.class);
+        doAnswer(invocation -> {
+            GUESTS.forEach(invocation.<Consumer<Guest>>getArgument(0));
+            return null;
+        }).when(reservationRepository).forEachGuest(any(Consumer.class));
+        this.guestNameIndex = new GuestNameIndex(reservationRepository, Optional.empty());
+        this.guestNameIndex.load();
+    }
+
+    @Test
+    void given_NamesStartingWithTheQuery_when_TheGuestsAreSearched_then_TheWholeNamesComeBeforeTheOtherWords () {
+        // when
+        val guests = this.guestNameIndex.search("joh", LIMIT);
+        // then
+        assertEquals(List.of("John Smith", "Johanna Smithers", "Mary Johnson"), names(guests));
+    }
+
+    @Test
+    void given_TheNameIsTypedInFull_when_TheGuestsAreSearched_then_ItComesFirst () {
+        // when
+        val guests = this.guestNameIndex.search("JON", LIMIT);
+        // then
+        assertEquals("Jon", guests.get(0).getName());
+    }
+
+    @Test
+    void given_ANameIsMisspelled_when_TheGuestsAreSearched_then_TheClosestNamesComeFirst () {
+        // when
+        val guests = this.guestNameIndex.search("Jonh Smiht", LIMIT);
+        // then
+        assertEquals("John Smith", guests.get(0).getName());
+        // and accents do not matter
+        assertEquals("José Álvarez", this.guestNameIndex.search("jose alvares", LIMIT).get(0).getName());
+        // and names too many typos away are not offered
+        assertEquals(List.of("John Smith"), names(this.guestNameIndex.search("smiht", LIMIT)));
+    }
+
+    @Test
+    void given_AGuestBookedAndAnotherCancelled_when_TheGuestsAreSearched_then_TheIndexReflectsBoth () {
+        // given
+        this.guestNameIndex.onGuestlistEvent(GuestlistEvent.booked(Guest.of("Johnny Cash", 6, 1)));
+        this.guestNameIndex.onAfterDelete(new AfterDeleteEvent<>(
+            Identifier.of(1L), ReservationDb.of("John Smith", 1, 2), mock(MutableAggregateChange.class)));
+        // when
+        val guests = this.guestNameIndex.search("john", LIMIT);
+        // then
+        assertEquals(List.of("Johnny Cash", "Mary Johnson"), names(guests));
+    }
+
+    @Test
+    void given_ManyNamesMatch_when_TheGuestsAreSearched_then_NoMoreThanTheLimitAreReturned () {
+        // when
+        val guests = this.guestNameIndex.search("j", 2);
+        // then
+        assertEquals(2, guests.size());
+        assertTrue(this.guestNameIndex.search("  ", LIMIT).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void given_AGuestBookedWhileTheIndexIsReloaded_when_TheGuestsAreSearched_then_TheyAreFound () {
+        // given
+        val reservationRepository = mock(ReservationRepository.class);
+        val guestNameIndex = new GuestNameIndex(reservationRepository, Optional.empty());
+        doAnswer(invocation -> {
+            // booked after the guests have been read, before the index is rebuilt from them
+            GUESTS.forEach(invocation.<Consumer<Guest>>getArgument(0));
+            guestNameIndex.add(Guest.of("Johnny Cash", 6, 1));
+            return null;
+        }).when(reservationRepository).forEachGuest(any(Consumer.class));
+        // when
+        guestNameIndex.load();
+        // then
+        assertEquals("Johnny Cash", guestNameIndex.search("johnny", LIMIT).get(0).getName());
+    }
+
+    private static List<String> names(List<Guest> guests) {
+        return guests.stream().map(Guest::getName).collect(toList());
+    }
+}
@@ -0,0 +1,205 @@
+/***************************\
+   Unit Tests
+\***************************/
+package list.guest.usecase.seating;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static java.util.stream.Collectors.*;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import list.guest.adapter.persistence.ArrivedGuestRepository;
+import list.guest.adapter.persistence.AttendanceEventDb;
+import list.guest.adapter.persistence.AttendanceEventDb.Type;
+import list.guest.adapter.persistence.AttendanceEventRepository;
+import list.guest.adapter.persistence.AttendanceSnapshotDb;
+import list.guest.adapter.persistence.AttendanceSnapshotRepository;
+import lombok.val;
+
+public class AttendanceLogTests {
+
+    private static final long SNAPSHOT_ID = 7;
+    private static final long SNAPSHOT_LAST_EVENT_ID = 100;
+    private static final LocalDateTime ARRIVAL_TIME = LocalDateTime.parse("2022-05-04T20:20:20");
+
+    private AttendanceLog attendanceLog;
+    private AttendanceEventRepository eventRepository;
+    private AttendanceSnapshotRepository snapshotRepository;
+    private ArrivedGuestRepository arrivedGuestRepository;
+
+    @BeforeEach
+    void setup() {
+        this.eventRepository = mock(AttendanceEventRepository.class);
+        this.snapshotRepository = mock(AttendanceSnapshotRepository.class);
+        this.arrivedGuestRepository = mock(ArrivedGuestRepository.class);
+        this.attendanceLog = new AttendanceLog(this.eventRepository, this.snapshotRepository, this.arrivedGuestRepository);
+    }
+
+    @Test
+    void given_ASnapshotAndLaterEvents_when_TheLogIsReplayed_then_OnlyTheEventsAfterTheSnapshotAreApplied () {
+        // given
+        givenASnapshotOf(ArrivedGuestDb.of("Guest 1", 2, ARRIVAL_TIME), ArrivedGuestDb.of("Guest 2", 3, ARRIVAL_TIME));
+        when(eventRepository.findAfter(SNAPSHOT_LAST_EVENT_ID))
+            .thenReturn(List.of(
+                new AttendanceEventDb(101L, "Guest 1", Type.LEFT, null, ARRIVAL_TIME.plusHours(1)),
+                new AttendanceEventDb(102L, "Guest 3", Type.ARRIVED, 4, ARRIVAL_TIME.plusHours(2))));
+        // when
+        val arrivals = this.attendanceLog.replay();
+        // then
+        assertEquals(List.of("Guest 2", "Guest 3"), names(arrivals));
+        verify(eventRepository, never()).findAfter(0);
+    }
+
+    @Test
+    void given_EventsSinceTheLatestSnapshot_when_ASnapshotIsTaken_then_ItHoldsTheGuestsAsOfTheLastEvent () {
+        // given
+        givenASnapshotOf(ArrivedGuestDb.of("Guest 1", 2, ARRIVAL_TIME));
+        when(eventRepository.findAfter(SNAPSHOT_LAST_EVENT_ID))
+            .thenReturn(List.of(new AttendanceEventDb(101L, "Guest 2", Type.ARRIVED, 4, ARRIVAL_TIME)));
+        // when
+        this.attendanceLog.snapshot();
+        // then
+        val snapshot = ArgumentCaptor.forClass(AttendanceSnapshotDb.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<ArrivedGuestDb>> guests = ArgumentCaptor.forClass(Collection.class);
+        verify(snapshotRepository).saveSnapshot(snapshot.capture(), guests.capture());
+        assertEquals(101L, snapshot.getValue().getLastEventId());
+        assertEquals(List.of("Guest 1", "Guest 2"), names(guests.getValue()));
+    }
+
+    @Test
+    void given_NoEventSinceTheLatestSnapshot_when_ASnapshotIsDue_then_NoneIsTaken () {
+        // given
+        givenASnapshotOf(ArrivedGuestDb.of("Guest 1", 2, ARRIVAL_TIME));
+        when(eventRepository.findAfter(SNAPSHOT_LAST_EVENT_ID))
+            .thenReturn(List.of());
+        // when
+        this.attendanceLog.snapshot();
+        // then
+        verify(snapshotRepository, never()).saveSnapshot(any(), any());
+    }
+
+    @Test
+    void given_GuestsCameAndWentWhileTheLogWasOff_when_TheLogIsReconciled_then_TheDifferencesAreAppended () {
+        // given
+        givenASnapshotOf(ArrivedGuestDb.of("Guest 1", 2, ARRIVAL_TIME), ArrivedGuestDb.of("Guest 2", 3, ARRIVAL_TIME));
+        when(eventRepository.findAfter(SNAPSHOT_LAST_EVENT_ID))
+            .thenReturn(List.of());
+        when(arrivedGuestRepository.findAll())
+            .thenReturn(List.of(ArrivedGuestDb.of("Guest 2", 3, ARRIVAL_TIME), ArrivedGuestDb.of("Guest 3", 4, ARRIVAL_TIME.plusHours(1))));
+        when(arrivedGuestRepository.findProjectedEventId()).thenReturn(SNAPSHOT_LAST_EVENT_ID);
+        givenEventsAreAppendedAfter(SNAPSHOT_LAST_EVENT_ID);
+        // when
+        this.attendanceLog.reconcile();
+        // then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<AttendanceEventDb>> events = ArgumentCaptor.forClass(Iterable.class);
+        verify(eventRepository).saveAll(events.capture());
+        // and the table is known to be up to date with the log
+        verify(arrivedGuestRepository).saveProjectedEventId(SNAPSHOT_LAST_EVENT_ID + 2);
+        val appended = events.getValue().iterator();
+        val left = appended.next();
+        assertEquals("Guest 1", left.getName());
+        assertEquals(Type.LEFT, left.getType());
+        val arrived = appended.next();
+        assertEquals("Guest 3", arrived.getName());
+        assertEquals(Type.ARRIVED, arrived.getType());
+        assertEquals(ARRIVAL_TIME.plusHours(1), arrived.getEventTime());
+        assertFalse(appended.hasNext());
+    }
+
+    @Test
+    void given_TheLogIsUpToDateWithTheArrivalsTable_when_TheLogIsReconciled_then_NothingIsAppended () {
+        // given
+        givenASnapshotOf(ArrivedGuestDb.of("Guest 1", 2, ARRIVAL_TIME));
+        when(eventRepository.findAfter(SNAPSHOT_LAST_EVENT_ID))
+            .thenReturn(List.of());
+        when(arrivedGuestRepository.findAll())
+            .thenReturn(List.of(ArrivedGuestDb.of("Guest 1", 2, ARRIVAL_TIME)));
+        when(arrivedGuestRepository.findProjectedEventId()).thenReturn(SNAPSHOT_LAST_EVENT_ID);
+        // when
+        this.attendanceLog.reconcile();
+        // then
+        verify(eventRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void given_TheLogIsAheadOfTheArrivalsTable_when_TheLogIsReconciled_then_TheTableIsNotTakenForNewerThanTheLog () {
+        // given
+        givenASnapshotOf(ArrivedGuestDb.of("Guest 1", 2, ARRIVAL_TIME));
+        when(eventRepository.findAfter(SNAPSHOT_LAST_EVENT_ID))
+            .thenReturn(List.of(new AttendanceEventDb(101L, "Guest 2", Type.ARRIVED, 4, ARRIVAL_TIME)));
+        when(arrivedGuestRepository.findProjectedEventId()).thenReturn(SNAPSHOT_LAST_EVENT_ID);
+        // when
+        this.attendanceLog.reconcile();
+        // then
+        verify(arrivedGuestRepository, never()).findAll();
+        verify(eventRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void given_TheLogIsAheadOfTheArrivalsTable_when_TheArrivalsAreProjected_then_TheTableIsRebuiltFromTheLog () {
+        // given
+        givenASnapshotOf(ArrivedGuestDb.of("Guest 1", 2, ARRIVAL_TIME));
+        when(eventRepository.findAfter(SNAPSHOT_LAST_EVENT_ID))
+            .thenReturn(List.of(new AttendanceEventDb(101L, "Guest 2", Type.ARRIVED, 4, ARRIVAL_TIME)));
+        when(arrivedGuestRepository.findProjectedEventId()).thenReturn(SNAPSHOT_LAST_EVENT_ID);
+        // when
+        val rebuilt = this.attendanceLog.projectArrivals();
+        // then
+        assertTrue(rebuilt);
+        val inOrder = inOrder(arrivedGuestRepository);
+        inOrder.verify(arrivedGuestRepository).deleteAllArrivals();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ArrivedGuestDb>> arrivals = ArgumentCaptor.forClass(List.class);
+        inOrder.verify(arrivedGuestRepository).insertAll(arrivals.capture());
+        inOrder.verify(arrivedGuestRepository).saveProjectedEventId(101L);
+        assertEquals(List.of("Guest 1", "Guest 2"), names(arrivals.getValue()));
+    }
+
+    @Test
+    void given_TheArrivalsTableIsUpToDateWithTheLog_when_TheArrivalsAreProjected_then_TheTableIsLeftAlone () {
+        // given
+        givenASnapshotOf(ArrivedGuestDb.of("Guest 1", 2, ARRIVAL_TIME));
+        when(eventRepository.findAfter(SNAPSHOT_LAST_EVENT_ID))
+            .thenReturn(List.of());
+        when(arrivedGuestRepository.findProjectedEventId()).thenReturn(SNAPSHOT_LAST_EVENT_ID);
+        // when
+        val rebuilt = this.attendanceLog.projectArrivals();
+        // then
+        assertFalse(rebuilt);
+        verify(arrivedGuestRepository, never()).deleteAllArrivals();
+    }
+
+    private void givenEventsAreAppendedAfter(long lastEventId) {
+        when(eventRepository.saveAll(any())).thenAnswer(invocation -> {
+            long id = lastEventId;
+            for (val event : invocation.<Iterable<AttendanceEventDb>>getArgument(0)) {
+                ReflectionTestUtils.setField(event, "id", ++id);
+            }
+            return invocation.getArgument(0);
+        });
+    }
+
+    private void givenASnapshotOf(ArrivedGuestDb... arrivals) {
+        val snapshot = AttendanceSnapshotDb.of(SNAPSHOT_LAST_EVENT_ID, ARRIVAL_TIME);
+        ReflectionTestUtils.setField(snapshot, "id", SNAPSHOT_ID);
+        when(snapshotRepository.findLatest()).thenReturn(Optional.of(snapshot));
+        when(snapshotRepository.findGuests(SNAPSHOT_ID)).thenReturn(List.of(arrivals));
+    }
+
+    private static List<String> names(Collection<ArrivedGuestDb> arrivals) {
+        return arrivals.stream().map(ArrivedGuestDb::getName).collect(toList());
+    }
+}
@@ -0,0 +1,109 @@
+/***************************\
+   Unit Tests
+\***************************/
+package list.guest.usecase.seating;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import list.guest.adapter.persistence.ReservationDb;
+import list.guest.usecase.exceptions.WriteBacklogException;
+import lombok.val;
+
+public class BatchingSeatingWriterTests {
+
+    private static final LocalDateTime ARRIVAL_TIME = LocalDateTime.parse("2022-05-04T20:20:20");
+    private static final ArrivedGuestDb ARRIVAL_1 = ArrivedGuestDb.of("Guest 1", 2, ARRIVAL_TIME);
+    private static final ArrivedGuestDb ARRIVAL_2 = ArrivedGuestDb.of("Guest 2", 3, ARRIVAL_TIME);
+    private static final Departure DEPARTURE_1 = Departure.of(ARRIVAL_1, ARRIVAL_TIME.plusHours(1));
+    private static final ReservationDb RESERVATION = ReservationDb.of("Guest 3", 1, 4);
+    // long enough for a whole test's writes to fall into one batch
+    private static final long MAX_DELAY = 5000;
+
+    private SeatingWriter delegate;
+    private PlatformTransactionManager transactionManager;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setup() {
+        this.delegate = mock(SeatingWriter.class);
+        this.transactionManager = mock(PlatformTransactionManager.class);
+        this.transactionTemplate = new TransactionTemplate(this.transactionManager);
+    }
+
+    @Test
+    void given_ABurstOfWrites_when_TheyAreWritten_then_TheyGoInOneTransactionInOrderWithTheConsecutiveOnesOfAKindTogether () throws InterruptedException {
+        // given
+        val writer = new BatchingSeatingWriter(delegate, transactionTemplate, 100, 100, MAX_DELAY, 1000);
+        writer.arrivalAdded(ARRIVAL_1);
+        writer.arrivalAdded(ARRIVAL_2);
+        writer.arrivalRemoved(DEPARTURE_1);
+        writer.reservationAdded(RESERVATION);
+        writer.arrivalAdded(ARRIVAL_1);
+        // when
+        writer.close();
+        // then
+        val inOrder = inOrder(delegate);
+        inOrder.verify(delegate).arrivalsAdded(List.of(ARRIVAL_1, ARRIVAL_2));
+        inOrder.verify(delegate).arrivalsRemoved(List.of(DEPARTURE_1));
+        inOrder.verify(delegate).reservationsAdded(List.of(RESERVATION));
+        inOrder.verify(delegate).arrivalsAdded(List.of(ARRIVAL_1));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void given_TheQueueIsFull_when_AnotherWriteComesIn_then_ItIsTurnedAway () throws InterruptedException {
+        // given
+        val release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(delegate).arrivalsAdded(anyList());
+        val writer = new BatchingSeatingWriter(delegate, transactionTemplate, 1, 1, 0, 10);
+        writer.arrivalAdded(ARRIVAL_1);
+        // the first write is being written, so the second one fills the queue
+        while (writer.getQueued() > 0) {
+            Thread.sleep(1);
+        }
+        writer.arrivalAdded(ARRIVAL_2);
+        // when
+        val thrown = assertThrows(WriteBacklogException.class, () -> writer.arrivalRemoved(DEPARTURE_1));
+        // then
+        assertNotNull(thrown.getMessage());
+        release.countDown();
+        writer.close();
+        verify(delegate, never()).arrivalsRemoved(anyList());
+        verify(delegate).arrivalsAdded(List.of(ARRIVAL_2));
+    }
+
+    @Test
+    void given_ABatchFails_when_ItIsWritten_then_ItsWritesAreRetriedOneAtATime () throws InterruptedException {
+        // given
+        doThrow(new IllegalStateException("Batch failed"))
+            .doNothing()
+            .when(delegate).arrivalsAdded(anyList());
+        val writer = new BatchingSeatingWriter(delegate, transactionTemplate, 100, 100, MAX_DELAY, 1000);
+        writer.arrivalAdded(ARRIVAL_1);
+        writer.arrivalAdded(ARRIVAL_2);
+        // when
+        writer.close();
+        // then
+        val inOrder = inOrder(delegate);
+        inOrder.verify(delegate).arrivalsAdded(List.of(ARRIVAL_1, ARRIVAL_2));
+        inOrder.verify(delegate).arrivalsAdded(List.of(ARRIVAL_1));
+        inOrder.verify(delegate).arrivalsAdded(List.of(ARRIVAL_2));
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+}
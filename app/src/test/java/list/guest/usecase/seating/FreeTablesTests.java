@@ -0,0 +1,113 @@
+/***************************\
+   Unit Tests
+\***************************/
+package list.guest.usecase.seating;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.relational.core.conversion.MutableAggregateChange;
+import org.springframework.data.relational.core.mapping.event.AfterSaveEvent;
+
+import list.guest.adapter.persistence.TableDb;
+import list.guest.adapter.persistence.TableOccupancyDb;
+import list.guest.adapter.persistence.TableRepository;
+import lombok.val;
+
+public class FreeTablesTests {
+
+    private static final int SMALL_TABLE_NUMBER = 1;
+    private static final int LARGE_TABLE_NUMBER = 2;
+    private static final int BOOKED_TABLE_NUMBER = 3;
+    private static final int OTHER_SMALL_TABLE_NUMBER = 4;
+    private static final int SMALL_TABLE_CAPACITY = 4;
+    private static final int LARGE_TABLE_CAPACITY = 10;
+
+    private FreeTables freeTables;
+
+    @BeforeEach
+    void setup() {
+        val tableRepository = mock(TableRepository.class);
+        when(tableRepository.findOccupancy())
+            .thenReturn(List.of(
+                TableOccupancyDb.of(SMALL_TABLE_NUMBER, SMALL_TABLE_CAPACITY, 0, 0),
+                TableOccupancyDb.of(LARGE_TABLE_NUMBER, LARGE_TABLE_CAPACITY, 0, 0),
+                TableOccupancyDb.of(BOOKED_TABLE_NUMBER, SMALL_TABLE_CAPACITY, 2, 0),
+                TableOccupancyDb.of(OTHER_SMALL_TABLE_NUMBER, SMALL_TABLE_CAPACITY, 0, 0)));
+        this.freeTables = new FreeTables(tableRepository, Optional.empty());
+        this.freeTables.load();
+    }
+
+    @Test
+    void given_SeveralTablesFitTheParty_when_ATableIsTaken_then_TheSmallestFreeOneIsReturned () {
+        // when
+        val tableNumber = this.freeTables.take(3);
+        // then
+        assertEquals(Optional.of(SMALL_TABLE_NUMBER), tableNumber);
+        assertEquals(Optional.of(OTHER_SMALL_TABLE_NUMBER), this.freeTables.take(3));
+        assertEquals(Optional.of(LARGE_TABLE_NUMBER), this.freeTables.take(3));
+        assertEquals(Optional.empty(), this.freeTables.take(3));
+    }
+
+    @Test
+    void given_NoTableFitsTheParty_when_ATableIsTaken_then_NoneIsReturned () {
+        // when
+        val tableNumber = this.freeTables.take(LARGE_TABLE_CAPACITY + 1);
+        // then
+        assertEquals(Optional.empty(), tableNumber);
+    }
+
+    @Test
+    void given_ATableHasBeenBookedAndAnotherReleased_when_ATableIsTaken_then_TheIndexReflectsBoth () {
+        // given
+        this.freeTables.booked(SMALL_TABLE_NUMBER);
+        this.freeTables.released(BOOKED_TABLE_NUMBER);
+        // when
+        val tableNumber = this.freeTables.take(SMALL_TABLE_CAPACITY);
+        // then
+        assertEquals(Optional.of(BOOKED_TABLE_NUMBER), tableNumber);
+    }
+
+    @Test
+    void given_AFreeTableHasBeenResized_when_ATableIsTaken_then_ItIsFoundByItsNewCapacity () {
+        // given
+        val resized = TableDb.of(LARGE_TABLE_NUMBER, 2);
+        this.freeTables.onAfterSave(new AfterSaveEvent<>(resized, MutableAggregateChange.forSave(resized)));
+        // when
+        val tableNumber = this.freeTables.take(2);
+        // then
+        assertEquals(Optional.of(LARGE_TABLE_NUMBER), tableNumber);
+        assertEquals(Optional.empty(), this.freeTables.take(LARGE_TABLE_CAPACITY));
+    }
+
+    @Test
+    void given_ManyBookingsAtOnce_when_TablesAreTaken_then_NoTableIsHandedOutTwice () throws Exception {
+        // given
+        val executor = Executors.newFixedThreadPool(8);
+        val takes = new ArrayList<Callable<Optional<Integer>>>();
+        for (int i = 0; i < 8; i++) {
+            takes.add(() -> this.freeTables.take(1));
+        }
+        try {
+            // when
+            val taken = new ArrayList<Integer>();
+            for (val result : executor.invokeAll(takes)) {
+                result.get().ifPresent(taken::add);
+            }
+            // then
+            assertEquals(3, taken.size());
+            assertEquals(3, new HashSet<>(taken).size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
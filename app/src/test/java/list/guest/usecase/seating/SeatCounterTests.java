@@ -0,0 +1,130 @@
+/***************************\
+   Unit Tests
+\***************************/
+package list.guest.usecase.seating;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import list.guest.adapter.persistence.ArrivedGuestRepository;
+import list.guest.adapter.persistence.TableSeatsDb;
+import lombok.val;
+
+public class SeatCounterTests {
+
+    private static final int TABLE_NUMBER = 1;
+    private static final int OTHER_TABLE_NUMBER = 2;
+    private static final int TABLE_CAPACITY = 10;
+    private static final int PARTY_SIZE = 4;
+
+    private SeatCounter seatCounter;
+    private ArrivedGuestRepository arrivedGuestRepository;
+
+    @BeforeEach
+    void setup() {
+        this.arrivedGuestRepository = mock(ArrivedGuestRepository.class);
+        when(arrivedGuestRepository.countSeatsEmptyByTable())
+            .thenReturn(List.of(
+                TableSeatsDb.of(TABLE_NUMBER, TABLE_CAPACITY),
+                TableSeatsDb.of(OTHER_TABLE_NUMBER, TABLE_CAPACITY)));
+        this.seatCounter = new SeatCounter(this.arrivedGuestRepository, Optional.empty());
+        this.seatCounter.load();
+    }
+
+    @Test
+    void when_AGuestArrives_then_TheSeatsEmptyAreReducedByTheirParty () {
+        // when
+        this.seatCounter.guestArrived(TABLE_NUMBER, PARTY_SIZE);
+        // then
+        assertEquals(2 * TABLE_CAPACITY - PARTY_SIZE, this.seatCounter.getSeatsEmpty());
+        assertEquals(TABLE_CAPACITY - PARTY_SIZE, this.seatCounter.getSeatsEmpty(TABLE_NUMBER).get());
+        assertEquals(TABLE_CAPACITY, this.seatCounter.getSeatsEmpty(OTHER_TABLE_NUMBER).get());
+        assertEquals(PARTY_SIZE, this.seatCounter.getGuestsPresent());
+    }
+
+    @Test
+    void when_AGuestLeaves_then_TheirSeatsAreEmptyAgain () {
+        // given
+        this.seatCounter.guestArrived(TABLE_NUMBER, PARTY_SIZE);
+        // when
+        this.seatCounter.guestLeft(TABLE_NUMBER, PARTY_SIZE);
+        // then
+        assertEquals(2 * TABLE_CAPACITY, this.seatCounter.getSeatsEmpty());
+        verify(arrivedGuestRepository, times(1)).countSeatsEmptyByTable();
+    }
+
+    @Test
+    void given_TheCounterHasDrifted_when_ItIsReconciled_then_ItIsRepaired () {
+        // given
+        // a guest left without going through the use cases
+        this.seatCounter.guestArrived(TABLE_NUMBER, PARTY_SIZE);
+        // when
+        val drift = this.seatCounter.reconcile();
+        // then
+        assertEquals(-PARTY_SIZE, drift);
+        assertEquals(2 * TABLE_CAPACITY, this.seatCounter.getSeatsEmpty());
+        assertEquals(TABLE_CAPACITY, this.seatCounter.getSeatsEmpty(TABLE_NUMBER).get());
+    }
+
+    @Test
+    void given_AnArrivalIsWrittenButNotCountedYet_when_TheSeatsAreRecounted_then_TheRecountWaitsForIt () throws Exception {
+        // given
+        val recount = new CompletableFuture<Integer>();
+        this.seatCounter.counting(() -> {
+            // the arrival is in the database...
+            when(arrivedGuestRepository.countSeatsEmptyByTable())
+                .thenReturn(List.of(
+                    TableSeatsDb.of(TABLE_NUMBER, TABLE_CAPACITY - PARTY_SIZE),
+                    TableSeatsDb.of(OTHER_TABLE_NUMBER, TABLE_CAPACITY)));
+            when(arrivedGuestRepository.countGuestsPresent())
+                .thenReturn(PARTY_SIZE);
+            // when
+            // ...and a recount starts before it is counted
+            CompletableFuture.runAsync(() -> recount.complete(this.seatCounter.reconcile()));
+            assertThrows(TimeoutException.class, () -> recount.get(100, TimeUnit.MILLISECONDS));
+            this.seatCounter.guestArrived(TABLE_NUMBER, PARTY_SIZE);
+            return null;
+        });
+        // then
+        assertEquals(0, recount.get(1, TimeUnit.SECONDS));
+        assertEquals(2 * TABLE_CAPACITY - PARTY_SIZE, this.seatCounter.getSeatsEmpty());
+        assertEquals(PARTY_SIZE, this.seatCounter.getGuestsPresent());
+    }
+
+    @Test
+    void given_TheCounterHasDriftedDuringChanges_when_ItIsReconciled_then_ItIsRepaired () throws Exception {
+        // given
+        // a guest left without going through the use cases, while others kept arriving through them
+        this.seatCounter.guestArrived(TABLE_NUMBER, PARTY_SIZE);
+        this.seatCounter.counting(() -> {
+            this.seatCounter.guestArrived(OTHER_TABLE_NUMBER, PARTY_SIZE);
+            return null;
+        });
+        when(arrivedGuestRepository.countSeatsEmptyByTable())
+            .thenReturn(List.of(
+                TableSeatsDb.of(TABLE_NUMBER, TABLE_CAPACITY),
+                TableSeatsDb.of(OTHER_TABLE_NUMBER, TABLE_CAPACITY - PARTY_SIZE)));
+        // when
+        val drift = this.seatCounter.reconcile();
+        // then
+        assertEquals(-PARTY_SIZE, drift);
+        assertEquals(TABLE_CAPACITY, this.seatCounter.getSeatsEmpty(TABLE_NUMBER).get());
+    }
+
+    @Test
+    void when_TheSeatsEmptyAtAnUnknownTableAreRequested_then_NothingIsReturned () {
+        // when
+        val seatsEmpty = this.seatCounter.getSeatsEmpty(99);
+        // then
+        assertTrue(seatsEmpty.isEmpty());
+    }
+}
@@ -0,0 +1,157 @@
+/***************************\
+   Unit Tests
+\***************************/
+package list.guest.usecase.seating;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import static java.util.stream.Collectors.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import list.guest.adapter.persistence.ArrivedGuestDb;
+import list.guest.adapter.persistence.ArrivedGuestRepository;
+import list.guest.adapter.persistence.ReservationDb;
+import list.guest.adapter.persistence.ReservationRepository;
+import list.guest.adapter.persistence.TableDb;
+import list.guest.adapter.persistence.TableRepository;
+import list.guest.dto.TableOccupancy;
+import list.guest.usecase.exceptions.GuestListException;
+import list.guest.usecase.exceptions.GuestListException.ErrorType;
+import lombok.val;
+
+public class SeatingStateTests {
+
+    private static final int TABLE_NUMBER = 1;
+    private static final int FREE_TABLE_NUMBER = 2;
+    private static final int TABLE_CAPACITY = 10;
+    private static final String GUEST_NAME = "Denis Baltor";
+    private static final String ARRIVED_GUEST_NAME = "Guest 1";
+    private static final int SUCCESSFUL_ACCOMPANYING_NUMBER = 8;
+    private static final int FAILED_ACCOMPANYING_NUMBER = 13;
+    private static final LocalDateTime ARRIVAL_TIME = LocalDateTime.parse("2022-05-04T20:20:20");
+
+    private SeatingState seatingState;
+    private SeatingWriter seatingWriter;
+
+    @BeforeEach
+    void setup() {
+        val tableRepository = mock(TableRepository.class);
+        val reservationRepository = mock(ReservationRepository.class);
+        val arrivedGuestRepository = mock(ArrivedGuestRepository.class);
+        this.seatingWriter = mock(SeatingWriter.class);
+        when(tableRepository.findAll())
+            .thenReturn(List.of(
+                TableDb.of(TABLE_NUMBER, TABLE_CAPACITY),
+                TableDb.of(FREE_TABLE_NUMBER, TABLE_CAPACITY),
+                TableDb.of(3, TABLE_CAPACITY)));
+        when(reservationRepository.findAll())
+            .thenReturn(List.of(
+                ReservationDb.of(GUEST_NAME, TABLE_NUMBER, SUCCESSFUL_ACCOMPANYING_NUMBER),
+                ReservationDb.of(ARRIVED_GUEST_NAME, 3, SUCCESSFUL_ACCOMPANYING_NUMBER)));
+        when(arrivedGuestRepository.findAll())
+            .thenReturn(List.of(
+                ArrivedGuestDb.of(ARRIVED_GUEST_NAME, 4, ARRIVAL_TIME)));
+        this.seatingState = new SeatingState(tableRepository, reservationRepository, arrivedGuestRepository::findAll, this.seatingWriter);
+        this.seatingState.load();
+    }
+
+    @Test
+    void given_TableIsFree_when_GuestRequestToBookATable_then_TheReservationIsWrittenThrough () {
+        try {
+            // when
+            this.seatingState.bookTable("New Guest", FREE_TABLE_NUMBER, SUCCESSFUL_ACCOMPANYING_NUMBER);
+            // then
+            verify(seatingWriter, times(1)).reservationAdded(any());
+            assertEquals(3, this.seatingState.getGuestlist().size());
+        } catch (GuestListException e) {
+            fail(e.getErrorType().toString());
+        }
+    }
+
+    @Test
+    void given_TableHasAlreadyBeenReserved_when_GuestRequestToBookATable_then_AnErrorIsThrown () {
+        // when
+        val exception = assertThrows(
+            GuestListException.class,
+            () -> {
+                this.seatingState.bookTable("New Guest", TABLE_NUMBER, SUCCESSFUL_ACCOMPANYING_NUMBER);
+            });
+        // then
+        assertEquals(ErrorType.TABLE_NOT_AVAILABLE, exception.getErrorType());
+        verifyNoInteractions(seatingWriter);
+    }
+
+    @Test
+    void given_TheEntourageDoesNotFitTheTable_when_GuestArrives_then_AnErrorIsThrown () {
+        // when
+        val exception = assertThrows(
+            GuestListException.class,
+            () -> {
+                this.seatingState.checkGuestIn(GUEST_NAME, FAILED_ACCOMPANYING_NUMBER, ARRIVAL_TIME);
+            });
+        // then
+        assertEquals(ErrorType.TABLE_CAPACITY_EXCEEDED, exception.getErrorType());
+    }
+
+    @Test
+    void given_TheGuestIsAlreadyIn_when_GuestArrives_then_AnErrorIsThrown () {
+        // when
+        val exception = assertThrows(
+            GuestListException.class,
+            () -> {
+                this.seatingState.checkGuestIn(ARRIVED_GUEST_NAME, SUCCESSFUL_ACCOMPANYING_NUMBER, ARRIVAL_TIME);
+            });
+        // then
+        assertEquals(ErrorType.GUEST_HAS_ALREADY_ARRIVED, exception.getErrorType());
+    }
+
+    @Test
+    void given_theGuestHasArrived_when_TheGuestLeaves_then_TheyAreNoLongerListed () {
+        try {
+            // when
+            this.seatingState.checkGuestOut(ARRIVED_GUEST_NAME, ARRIVAL_TIME.plusHours(1));
+            // then
+            verify(seatingWriter, times(1)).arrivalRemoved(argThat(departure ->
+                departure.getArrival().getName().equals(ARRIVED_GUEST_NAME) && departure.getTimeLeft().equals(ARRIVAL_TIME.plusHours(1))));
+            assertTrue(this.seatingState.getArrivedGuests().isEmpty());
+        } catch (GuestListException e) {
+            fail(e.getErrorType().toString());
+        }
+    }
+
+    @Test
+    void when_TheSeatsEmptyAreRequested_then_TheAvailableSeatsPerTableAreReturned () {
+        // when
+        val seatsEmpty = this.seatingState.getSeatsEmptyByTable();
+        // then
+        assertEquals(TABLE_CAPACITY, seatsEmpty.get(FREE_TABLE_NUMBER));
+        assertEquals(TABLE_CAPACITY - 5, seatsEmpty.get(3));
+    }
+
+    @Test
+    void when_TheTablesAreRequested_then_EachTableShowsItsReservedAndArrivedParty () {
+        // when
+        val tables = this.seatingState.getTables();
+        // then
+        assertEquals(List.of(
+                TableOccupancy.of(TABLE_NUMBER, TABLE_CAPACITY, SUCCESSFUL_ACCOMPANYING_NUMBER + 1, 0),
+                TableOccupancy.of(FREE_TABLE_NUMBER, TABLE_CAPACITY, 0, 0),
+                TableOccupancy.of(3, TABLE_CAPACITY, SUCCESSFUL_ACCOMPANYING_NUMBER + 1, 5)),
+            tables);
+        assertEquals(TABLE_CAPACITY - 5, tables.get(2).getSeatsEmpty());
+    }
+
+    @Test
+    void given_APartySize_when_TheTablesAreRequested_then_OnlyTheFreeTablesThatFitThePartyAreReturned () {
+        // when
+        val tables = this.seatingState.getTablesAvailableFor(TABLE_CAPACITY);
+        // then
+        assertEquals(List.of(FREE_TABLE_NUMBER), tables.stream().map(TableOccupancy::getTableNumber).collect(toList()));
+        assertTrue(this.seatingState.getTablesAvailableFor(TABLE_CAPACITY + 1).isEmpty());
+    }
+}